@@ -0,0 +1,152 @@
+package club.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import club.Club;
+import club.Socio;
+import club.Socio.Tipo;
+
+/**
+ * Benchmarks de las operaciones del club que usan los puntos de venta.
+ * Cada operación se mide sobre clubes de distintos tamaños y con distinta cantidad de facturas
+ * por socio (ver EstadoClub). Las operaciones que modifican las facturas deshacen su efecto en la
+ * misma invocación para que la cantidad de facturas no cambie a lo largo de la medición.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BenchmarkClub {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Contador para recorrer las cédulas de prueba.
+     */
+    private int siguiente;
+
+    // -----------------------------------------------------------------
+    // Benchmarks
+    // -----------------------------------------------------------------
+
+    /**
+     * Busca un socio por su cédula; una de cada ocho búsquedas es de una cédula que no existe.
+     */
+    @Benchmark
+    public Socio buscarSocio(EstadoClub pEstado) {
+        return pEstado.club.buscarSocio(pEstado.consultas[siguiente++ & (EstadoClub.CONSULTAS - 1)]);
+    }
+
+    /**
+     * Afilia un socio nuevo al club.
+     */
+    @Benchmark
+    public void afiliarSocio(EstadoAfiliacion pEstado) throws Exception {
+        pEstado.club.afiliarSocio(EstadoClub.darCedula(pEstado.siguiente++), "Socio nuevo", Tipo.REGULAR);
+    }
+
+    /**
+     * Registra un consumo a un socio objetivo y paga la factura recién creada.
+     */
+    @Benchmark
+    public void registrarConsumo(EstadoClub pEstado) throws Exception {
+        String cedula = pEstado.objetivos[siguiente++ & (EstadoClub.OBJETIVOS - 1)];
+        long id = pEstado.club.registrarConsumoCentavos(cedula, "Cliente", EstadoClub.CONCEPTO, 1);
+        pEstado.club.pagarFacturaSocioPorId(cedula, id);
+    }
+
+    /**
+     * Paga la factura más antigua de un socio objetivo y registra otra en su lugar.
+     */
+    @Benchmark
+    public void pagarFacturaSocio(EstadoClub pEstado) throws Exception {
+        int objetivo = siguiente++ & (EstadoClub.OBJETIVOS - 1);
+        String cedula = pEstado.objetivos[objetivo];
+        if(pEstado.facturas == 0) {
+            long id = pEstado.club.registrarConsumoCentavos(cedula, "Cliente", EstadoClub.CONCEPTO, 1);
+            pEstado.club.pagarFacturaSocioPorId(cedula, id);
+            return;
+        }
+
+        long[] pendientes = pEstado.facturasPendientes[objetivo];
+        int primera = pEstado.primeraFactura[objetivo];
+        pEstado.club.pagarFacturaSocioPorId(cedula, pendientes[primera]);
+        pendientes[primera] = pEstado.club.registrarConsumoCentavos(cedula, "Cliente", EstadoClub.CONCEPTO, 1);
+        pEstado.primeraFactura[objetivo] = (primera + 1) % pEstado.facturas;
+    }
+
+    /**
+     * Calcula el total de los consumos pendientes de un socio objetivo.
+     */
+    @Benchmark
+    public long calcularTotalConsumos(EstadoClub pEstado) throws Exception {
+        return pEstado.club.calcularTotalConsumosCentavos(pEstado.objetivos[siguiente++ & (EstadoClub.OBJETIVOS - 1)]);
+    }
+
+    /**
+     * Verifica si se puede eliminar un socio, alternando entre socios objetivo (con facturas
+     * si el parámetro lo indica), socios al azar y cédulas que no existen.
+     */
+    @Benchmark
+    public String sePuedeEliminarSocio(EstadoClub pEstado) {
+        int i = siguiente++;
+        String cedula = (i & 1) == 0
+                ? pEstado.objetivos[(i >> 1) & (EstadoClub.OBJETIVOS - 1)]
+                : pEstado.consultas[(i >> 1) & (EstadoClub.CONSULTAS - 1)];
+        return pEstado.club.sePuedeEliminarSocio(cedula);
+    }
+
+    // -----------------------------------------------------------------
+    // Estados
+    // -----------------------------------------------------------------
+
+    /**
+     * Club al que se afilian socios nuevos. Se reconstruye en cada iteración para que su
+     * tamaño no se aleje del parámetro socios.
+     */
+    @State(Scope.Benchmark)
+    public static class EstadoAfiliacion {
+
+        /**
+         * Cantidad de socios del club al empezar cada iteración.
+         */
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int socios;
+
+        /**
+         * Club de prueba.
+         */
+        public Club club;
+
+        /**
+         * Número del siguiente socio a afiliar.
+         */
+        public int siguiente;
+
+        /**
+         * Construye el club de prueba con los socios indicados.
+         */
+        @Setup(Level.Iteration)
+        public void construir() throws Exception {
+            club = new Club();
+            for(siguiente = 0; siguiente < socios; siguiente++) {
+                club.afiliarSocio(EstadoClub.darCedula(siguiente), "Socio " + siguiente, Tipo.REGULAR);
+            }
+        }
+    }
+}
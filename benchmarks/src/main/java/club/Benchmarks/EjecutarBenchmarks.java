@@ -0,0 +1,23 @@
+package club.Benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks.
+ * Acepta las mismas opciones de línea de comandos que JMH y agrega siempre el perfilador del
+ * recolector de basura, de modo que junto con cada tiempo se reporta la memoria asignada por operación.
+ * Por ejemplo: java -jar benchmarks/target/benchmarks.jar BenchmarkClub.buscarSocio -p socios=1000000
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(opciones)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
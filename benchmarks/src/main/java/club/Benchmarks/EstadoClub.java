@@ -0,0 +1,149 @@
+package club.Benchmarks;
+
+import java.util.Random;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import club.AlmacenSocios;
+import club.Club;
+import club.FormatoFacturas;
+import club.Socio;
+import club.Socio.Tipo;
+
+/**
+ * Club de prueba para los benchmarks.
+ * Tiene la cantidad de socios regulares indicada por el parámetro socios. Un grupo fijo de
+ * socios objetivo tiene además la cantidad de facturas pendientes indicada por el parámetro
+ * facturas; solo a ellos se les dan facturas para que el club de un millón de socios quepa en memoria.
+ */
+@State(Scope.Benchmark)
+public class EstadoClub {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de socios objetivo. Es potencia de dos para recorrerlos con una máscara.
+     */
+    public final static int OBJETIVOS = 1024;
+
+    /**
+     * Cantidad de cédulas que se consultan en las búsquedas. Es potencia de dos.
+     */
+    public final static int CONSULTAS = 4096;
+
+    /**
+     * Nombre del concepto de las facturas de prueba.
+     */
+    public final static String CONCEPTO = "Almuerzo";
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de socios del club.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int socios;
+
+    /**
+     * Cantidad de facturas pendientes de cada socio objetivo.
+     */
+    @Param({"0", "10", "1000"})
+    public int facturas;
+
+    /**
+     * Formato en que los socios guardan sus facturas.
+     */
+    @Param({"OBJETOS", "COLUMNAS"})
+    public FormatoFacturas formato;
+
+    /**
+     * Club de prueba.
+     */
+    public Club club;
+
+    /**
+     * Cédulas de los socios objetivo.
+     */
+    public String[] objetivos;
+
+    /**
+     * Identificadores de las facturas pendientes de cada socio objetivo, como una cola circular
+     * que empieza en la posición indicada por primeraFactura.
+     */
+    public long[][] facturasPendientes;
+
+    /**
+     * Posición de la factura más antigua de cada socio objetivo en facturasPendientes.
+     */
+    public int[] primeraFactura;
+
+    /**
+     * Cédulas que se buscan: socios al azar y, una de cada ocho, cédulas que no existen.
+     */
+    public String[] consultas;
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Construye el club de prueba.
+     * post: El club tiene los socios y las facturas indicados por los parámetros.
+     */
+    @Setup(Level.Trial)
+    public void construir() throws Exception {
+        club = new Club(AlmacenSocios.MEMORIA, formato);
+        club.asegurarCapacidad(socios);
+        for(int i = 0; i < socios; i++) {
+            club.afiliarSocio(darCedula(i), "Socio " + i, Tipo.REGULAR);
+        }
+
+        objetivos = new String[OBJETIVOS];
+        facturasPendientes = new long[OBJETIVOS][facturas];
+        primeraFactura = new int[OBJETIVOS];
+        for(int i = 0; i < OBJETIVOS; i++) {
+            objetivos[i] = darCedula((int) ((long) i * socios / OBJETIVOS));
+            Socio socio = club.buscarSocio(objetivos[i]);
+            for(int j = 0; j < facturas; j++) {
+                facturasPendientes[i][j] = club.registrarConsumoCentavos(objetivos[i], socio.darNombre(), CONCEPTO, 1);
+            }
+        }
+
+        Random aleatorio = new Random(14);
+        consultas = new String[CONSULTAS];
+        for(int i = 0; i < CONSULTAS; i++) {
+            consultas[i] = i % 8 == 0 ? "x" + i : darCedula(aleatorio.nextInt(socios));
+        }
+        recargarFondos();
+    }
+
+    /**
+     * Devuelve a los socios objetivo los fondos gastados en pagos durante la iteración anterior.
+     * post: Los socios objetivo tienen el monto máximo de fondos.
+     */
+    @Setup(Level.Iteration)
+    public void recargarFondos() throws Exception {
+        for(String cedula : objetivos) {
+            Socio socio = club.buscarSocio(cedula);
+            long faltante = socio.darMontoMaximoCentavos() - socio.darFondosCentavos();
+            if(faltante > 0) {
+                club.aumentarFondosSocioCentavos(cedula, faltante);
+            }
+        }
+    }
+
+    /**
+     * Retorna la cédula del socio con el número dado.
+     * @param pNumero Número del socio.
+     * @return La cédula.
+     */
+    public static String darCedula(int pNumero) {
+        return Integer.toString(10000000 + pNumero);
+    }
+}
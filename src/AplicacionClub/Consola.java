@@ -0,0 +1,157 @@
+package AplicacionClub;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+
+/**
+ * Entrada y salida de la consola con buffers propios.
+ * Lo que se escribe se acumula y solo se envía a la salida al hacer una pregunta o al vaciar la
+ * consola, de modo que una sesión guiada por un script no paga una escritura por cada línea.
+ * La entrada se lee por líneas, sin expresiones regulares, y los números se convierten
+ * directamente de sus caracteres.
+ */
+public class Consola {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Tamaño, en caracteres, de los buffers de entrada y salida.
+     */
+    private final static int TAMANO_BUFFER = 64 * 1024;
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Lector de las líneas de la entrada.
+     */
+    private final BufferedReader entrada;
+
+    /**
+     * Escritor de la salida.
+     */
+    private final BufferedWriter salida;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea la consola sobre la entrada y la salida dadas, con la codificación de la plataforma,
+     * la misma que usan System.in y System.out.
+     * @param pEntrada Entrada de la consola. pEntrada != null.
+     * @param pSalida Salida de la consola. pSalida != null.
+     */
+    public Consola(InputStream pEntrada, OutputStream pSalida) {
+        entrada = new BufferedReader(new InputStreamReader(pEntrada, Charset.defaultCharset()), TAMANO_BUFFER);
+        salida = new BufferedWriter(new OutputStreamWriter(pSalida, Charset.defaultCharset()), TAMANO_BUFFER);
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Escribe un texto sin terminar la línea.
+     * @param pTexto Texto a escribir.
+     */
+    public void escribir(String pTexto) {
+        try {
+            salida.write(pTexto);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe un texto y termina la línea.
+     * @param pTexto Texto a escribir.
+     */
+    public void escribirLinea(String pTexto) {
+        try {
+            salida.write(pTexto);
+            salida.newLine();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Envía a la salida todo lo que se ha escrito.
+     */
+    public void vaciar() {
+        try {
+            salida.flush();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Muestra una pregunta y lee la respuesta. Antes de leer se vacía la salida, para que quien
+     * responde vea todo lo escrito hasta el momento.
+     * @param pMensaje Pregunta a mostrar.
+     * @return La línea de la respuesta, sin espacios en los extremos.
+     * @throws UncheckedIOException Si no se puede leer la entrada o ya no hay más líneas.
+     */
+    public String preguntar(String pMensaje) {
+        escribir(pMensaje);
+        vaciar();
+        try {
+            String linea = entrada.readLine();
+            if(linea == null) {
+                throw new EOFException("La entrada de la consola terminó.");
+            }
+            return linea.trim();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Convierte un texto en un número entero, sin expresiones regulares.
+     * @param pTexto Dígitos decimales con un signo opcional.
+     * @return El número.
+     * @throws NumberFormatException Si el texto no es un entero o no cabe en un int.
+     */
+    public static int aEntero(String pTexto) {
+        int longitud = pTexto.length();
+        int posicion = 0;
+        boolean negativo = false;
+        if(longitud > 0 && (pTexto.charAt(0) == '-' || pTexto.charAt(0) == '+')) {
+            negativo = pTexto.charAt(0) == '-';
+            posicion = 1;
+        }
+        if(posicion == longitud) {
+            throw new NumberFormatException("No es un número entero: " + pTexto);
+        }
+
+        // Se acumula en negativo, que tiene un valor más que el positivo
+        long numero = 0;
+        for(; posicion < longitud; posicion++) {
+            int digito = pTexto.charAt(posicion) - '0';
+            if(digito < 0 || digito > 9) {
+                throw new NumberFormatException("No es un número entero: " + pTexto);
+            }
+            numero = numero * 10 - digito;
+            if(numero < Integer.MIN_VALUE) {
+                throw new NumberFormatException("El número es demasiado grande: " + pTexto);
+            }
+        }
+        if(!negativo && numero == Integer.MIN_VALUE) {
+            throw new NumberFormatException("El número es demasiado grande: " + pTexto);
+        }
+        return (int) (negativo ? numero : -numero);
+    }
+}
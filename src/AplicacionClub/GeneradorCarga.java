@@ -0,0 +1,236 @@
+package AplicacionClub;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generador de carga para el servidor del club: abre muchas conexiones a la vez, como si fueran
+ * puntos de venta, y mide el rendimiento y la latencia de cada operación.
+ * Cada conexión envía una operación, espera su respuesta y envía la siguiente. La mezcla es de
+ * consumos, pagos de los consumos que la misma conexión registró, consultas de totales y
+ * aumentos de fondos sobre socios creados para la prueba.
+ * Uso: GeneradorCarga puerto [conexiones] [operaciones por conexión] [socios]
+ */
+public class GeneradorCarga {
+
+    /**
+     * Cantidad de conexiones si no se indica otra.
+     */
+    private final static int CONEXIONES_POR_DEFECTO = 100;
+
+    /**
+     * Cantidad de operaciones por conexión si no se indica otra.
+     */
+    private final static int OPERACIONES_POR_DEFECTO = 10000;
+
+    /**
+     * Cantidad de socios de la prueba si no se indica otra.
+     */
+    private final static int SOCIOS_POR_DEFECTO = 1000;
+
+    /**
+     * Prefijo de las cédulas de los socios de la prueba.
+     */
+    private final static String PREFIJO_CEDULA = "carga-";
+
+    public static void main(String[] args) throws Exception {
+        if(args.length == 0) {
+            System.out.println("Uso: GeneradorCarga puerto [conexiones] [operaciones por conexión] [socios]");
+            return;
+        }
+        int puerto = Integer.parseInt(args[0]);
+        int numConexiones = args.length > 1 ? Integer.parseInt(args[1]) : CONEXIONES_POR_DEFECTO;
+        int operaciones = args.length > 2 ? Integer.parseInt(args[2]) : OPERACIONES_POR_DEFECTO;
+        int socios = args.length > 3 ? Integer.parseInt(args[3]) : SOCIOS_POR_DEFECTO;
+
+        // Afiliar los socios de la prueba; si ya existen de una corrida anterior se reutilizan
+        try(Conexion conexion = new Conexion(puerto)) {
+            for(int i = 0; i < socios; i++) {
+                conexion.enviar("AFILIAR|" + PREFIJO_CEDULA + i + "|Socio de carga " + i + "|REGULAR");
+            }
+        }
+
+        ExecutorService hilos = ServidorClub.crearHilos("carga-club");
+        CountDownLatch salida = new CountDownLatch(1);
+        ArrayList<Future<Medicion>> mediciones = new ArrayList<Future<Medicion>>();
+        for(int i = 0; i < numConexiones; i++) {
+            mediciones.add(hilos.submit(() -> ejecutar(puerto, operaciones, socios, salida)));
+        }
+
+        long inicio = System.nanoTime();
+        salida.countDown();
+        long[] latencias = new long[numConexiones * operaciones];
+        long rechazos = 0;
+        int total = 0;
+        for(Future<Medicion> futuro : mediciones) {
+            Medicion medicion = futuro.get();
+            System.arraycopy(medicion.latencias, 0, latencias, total, medicion.latencias.length);
+            total += medicion.latencias.length;
+            rechazos += medicion.rechazos;
+        }
+        long nanos = System.nanoTime() - inicio;
+        hilos.shutdown();
+
+        Arrays.sort(latencias, 0, total);
+        double segundos = nanos / 1e9;
+        System.out.println("Conexiones: " + numConexiones + ", operaciones: " + total +
+                ", rechazos: " + rechazos);
+        System.out.printf("Tiempo: %.2f s, rendimiento: %.0f operaciones/s%n", segundos, total / segundos);
+        System.out.printf("Latencia (µs): p50 %d, p90 %d, p99 %d, p99.9 %d, máxima %d%n",
+                percentil(latencias, total, 0.50), percentil(latencias, total, 0.90),
+                percentil(latencias, total, 0.99), percentil(latencias, total, 0.999),
+                total == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latencias[total - 1]));
+    }
+
+    /**
+     * Ejecuta las operaciones de una conexión.
+     * @param pPuerto Puerto del servidor.
+     * @param pOperaciones Cantidad de operaciones a enviar.
+     * @param pSocios Cantidad de socios de la prueba.
+     * @param pSalida Señal para que todas las conexiones empiecen a la vez.
+     * @return La latencia de cada operación y la cantidad de rechazos.
+     * @throws Exception Si falla la conexión.
+     */
+    private static Medicion ejecutar(int pPuerto, int pOperaciones, int pSocios, CountDownLatch pSalida)
+            throws Exception {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Medicion medicion = new Medicion(pOperaciones);
+        ArrayDeque<String> porPagar = new ArrayDeque<String>();
+
+        try(Conexion conexion = new Conexion(pPuerto)) {
+            pSalida.await();
+            for(int i = 0; i < pOperaciones; i++) {
+                String cedula = PREFIJO_CEDULA + aleatorio.nextInt(pSocios);
+                int tipo = aleatorio.nextInt(100);
+                String operacion;
+                if(tipo < 60 || (tipo < 85 && porPagar.isEmpty())) {
+                    operacion = "CONSUMO|" + cedula + "|Socio de carga|Almuerzo|" + (1 + aleatorio.nextInt(50));
+                } else if(tipo < 85) {
+                    operacion = "PAGAR|" + porPagar.poll();
+                } else if(tipo < 95) {
+                    operacion = "TOTAL|" + cedula;
+                } else {
+                    operacion = "FONDOS|" + cedula + "|100";
+                }
+
+                long inicio = System.nanoTime();
+                String respuesta = conexion.enviar(operacion);
+                medicion.latencias[i] = System.nanoTime() - inicio;
+
+                if(!respuesta.startsWith(InterpreteComandos.OK)) {
+                    medicion.rechazos++;
+                } else if(operacion.startsWith("CONSUMO")) {
+                    porPagar.add(cedula + "|" + respuesta.substring(InterpreteComandos.OK.length() + 1));
+                }
+            }
+        }
+        return medicion;
+    }
+
+    /**
+     * Retorna el percentil dado de latencias ordenadas.
+     * @param pLatencias Latencias ordenadas, en nanosegundos.
+     * @param pCantidad Cantidad de latencias.
+     * @param pPercentil Percentil entre 0 y 1.
+     * @return La latencia del percentil en microsegundos.
+     */
+    private static long percentil(long[] pLatencias, int pCantidad, double pPercentil) {
+        if(pCantidad == 0) {
+            return 0;
+        }
+        int posicion = (int) Math.min(pCantidad - 1, Math.ceil(pPercentil * pCantidad) - 1);
+        return TimeUnit.NANOSECONDS.toMicros(pLatencias[Math.max(0, posicion)]);
+    }
+
+    /**
+     * Latencias y rechazos de una conexión.
+     */
+    private static class Medicion {
+
+        /**
+         * Latencia de cada operación, en nanosegundos.
+         */
+        private final long[] latencias;
+
+        /**
+         * Cantidad de operaciones rechazadas.
+         */
+        private long rechazos;
+
+        /**
+         * Crea la medición de la cantidad de operaciones dada.
+         * @param pOperaciones Cantidad de operaciones.
+         */
+        private Medicion(int pOperaciones) {
+            latencias = new long[pOperaciones];
+        }
+    }
+
+    /**
+     * Conexión con el servidor del club que envía una operación y espera su respuesta.
+     */
+    private static class Conexion implements AutoCloseable {
+
+        /**
+         * Socket de la conexión.
+         */
+        private final Socket socket;
+
+        /**
+         * Lector de las respuestas.
+         */
+        private final BufferedReader entrada;
+
+        /**
+         * Escritor de las operaciones.
+         */
+        private final BufferedWriter salida;
+
+        /**
+         * Se conecta al servidor del club de la máquina local.
+         * @param pPuerto Puerto del servidor.
+         * @throws IOException Si no se puede conectar.
+         */
+        private Conexion(int pPuerto) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), pPuerto);
+            socket.setTcpNoDelay(true);
+            entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            salida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Envía una operación y espera su respuesta.
+         * @param pOperacion Línea de la operación.
+         * @return La línea de respuesta.
+         * @throws IOException Si se pierde la conexión.
+         */
+        private String enviar(String pOperacion) throws IOException {
+            salida.write(pOperacion);
+            salida.newLine();
+            salida.flush();
+            String respuesta = entrada.readLine();
+            if(respuesta == null) {
+                throw new IOException("El servidor cerró la conexión.");
+            }
+            return respuesta;
+        }
+
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package AplicacionClub;
+
+import java.util.ArrayList;
+import club.AgregadosClub;
+import club.Club;
+import club.Dinero;
+import club.EvaluacionEliminacion;
+import club.Factura;
+import club.Socio.Tipo;
+import club.Excepciones.RechazoException;
+
+/**
+ * Intérprete de las operaciones del club escritas como líneas de texto.
+ * Cada línea tiene el nombre de la operación y sus campos separados por '|', por ejemplo
+ * "CONSUMO|1020|Ana|Almuerzo|12.50", y cada operación produce una sola línea de respuesta que
+ * empieza por OK o por ERROR. Ningún campo puede estar vacío, y los valores de dinero se escriben en
+ * unidades con hasta dos decimales y deben ser mayores que cero.
+ * Las operaciones son:
+ * <pre>
+ * AFILIAR|cédula|nombre|REGULAR o VIP     OK
+ * AUTORIZAR|cédula|nombre                 OK
+ * CONSUMO|cédula|cliente|concepto|valor   OK id-de-la-factura
+ * PAGAR|cédula|id-de-la-factura           OK
+ * FONDOS|cédula|valor                     OK
+ * TOTAL|cédula                            OK total-pendiente
+ * FACTURAS|cédula                         OK id:valor id:valor ...
+ * ELIMINABLE|cédula                       OK número-de-caso descripción
+ * ELIMINAR|cédula                         OK
+ * CIFRAS                                  OK pendiente REGULAR=fondos VIP=fondos
+ * </pre>
+ * El intérprete no guarda estado propio, así que varios hilos lo pueden usar a la vez.
+ */
+public class InterpreteComandos {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Separador de los campos de una línea.
+     */
+    public final static char SEPARADOR = '|';
+
+    /**
+     * Respuesta de una operación exitosa.
+     */
+    public final static String OK = "OK";
+
+    /**
+     * Prefijo de la respuesta de una operación rechazada.
+     */
+    public final static String ERROR = "ERROR ";
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Club sobre el que se ejecutan las operaciones.
+     */
+    private final Club club;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea el intérprete de las operaciones del club dado.
+     * @param pClub Club sobre el que se ejecutan las operaciones. pClub != null.
+     */
+    public InterpreteComandos(Club pClub) {
+        club = pClub;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Ejecuta la operación de una línea.
+     * @param pLinea Línea con la operación y sus campos. pLinea != null.
+     * @return La respuesta: OK, opcionalmente seguido de datos, o ERROR seguido del motivo.
+     */
+    public String ejecutar(String pLinea) {
+        ArrayList<String> campos = separar(pLinea);
+        String operacion = campos.get(0);
+
+        try {
+            switch(operacion) {
+                case "AFILIAR":
+                    revisarCampos(campos, 4);
+                    club.afiliarSocio(campos.get(1), campos.get(2), leerTipo(campos.get(3)));
+                    return OK;
+                case "AUTORIZAR":
+                    revisarCampos(campos, 3);
+                    club.agregarAutorizadoSocio(campos.get(1), campos.get(2));
+                    return OK;
+                case "CONSUMO":
+                    revisarCampos(campos, 5);
+                    long id = club.registrarConsumoCentavos(campos.get(1), campos.get(2), campos.get(3),
+                            leerValor(campos.get(4)));
+                    return OK + " " + id;
+                case "PAGAR":
+                    revisarCampos(campos, 3);
+                    club.pagarFacturaSocioPorId(campos.get(1), Long.parseLong(campos.get(2)));
+                    return OK;
+                case "FONDOS":
+                    revisarCampos(campos, 3);
+                    club.aumentarFondosSocioCentavos(campos.get(1), leerValor(campos.get(2)));
+                    return OK;
+                case "TOTAL":
+                    revisarCampos(campos, 2);
+                    return OK + " " + Dinero.formatear(club.calcularTotalConsumosCentavos(campos.get(1)));
+                case "FACTURAS":
+                    revisarCampos(campos, 2);
+                    StringBuilder facturas = new StringBuilder(OK);
+                    for(Factura factura : club.darFacturasSocio(campos.get(1))) {
+                        facturas.append(' ').append(factura.darId()).append(':')
+                                .append(Dinero.formatear(factura.darValorCentavos()));
+                    }
+                    return facturas.toString();
+                case "ELIMINABLE":
+                    revisarCampos(campos, 2);
+                    EvaluacionEliminacion evaluacion = club.evaluarEliminacion(campos.get(1));
+                    return OK + " " + evaluacion.darCaso().darNumero() + " " + evaluacion.darDescripcion();
+                case "ELIMINAR":
+                    revisarCampos(campos, 2);
+                    club.eliminarSocio(campos.get(1));
+                    return OK;
+                case "CIFRAS":
+                    revisarCampos(campos, 1);
+                    AgregadosClub cifras = club.darAgregados();
+                    StringBuilder respuesta = new StringBuilder(OK).append(' ')
+                            .append(Dinero.formatear(cifras.darTotalPendienteCentavos()));
+                    for(Tipo tipo : Tipo.values()) {
+                        respuesta.append(' ').append(tipo).append('=')
+                                .append(Dinero.formatear(cifras.darFondosCentavos(tipo)));
+                    }
+                    return respuesta.toString();
+                default:
+                    return ERROR + "Operación desconocida: " + operacion;
+            }
+        } catch(RechazoException e) {
+            return ERROR + e.getMessage();
+        } catch(IllegalArgumentException | ArithmeticException e) {
+            // NumberFormatException es una IllegalArgumentException
+            return ERROR + "Campo inválido: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Separa los campos de una línea, quitando los espacios de los extremos de cada uno.
+     * @param pLinea Línea a separar.
+     * @return Lista con los campos; tiene al menos uno.
+     */
+    private static ArrayList<String> separar(String pLinea) {
+        ArrayList<String> campos = new ArrayList<String>();
+        int inicio = 0;
+        int fin = pLinea.indexOf(SEPARADOR);
+        while(fin >= 0) {
+            campos.add(pLinea.substring(inicio, fin).trim());
+            inicio = fin + 1;
+            fin = pLinea.indexOf(SEPARADOR, inicio);
+        }
+        campos.add(pLinea.substring(inicio).trim());
+        return campos;
+    }
+
+    /**
+     * Revisa que la operación tenga la cantidad de campos esperada y que ninguno esté vacío.
+     * @param pCampos Campos de la línea, empezando por la operación.
+     * @param pCantidad Cantidad de campos esperada, contando la operación.
+     * @throws IllegalArgumentException Si la cantidad no coincide o hay un campo vacío.
+     */
+    private static void revisarCampos(ArrayList<String> pCampos, int pCantidad) {
+        if(pCampos.size() != pCantidad) {
+            throw new IllegalArgumentException("La operación " + pCampos.get(0) + " lleva " +
+                    (pCantidad - 1) + " campos y tiene " + (pCampos.size() - 1));
+        }
+        for(int i = 1; i < pCantidad; i++) {
+            if(pCampos.get(i).isEmpty()) {
+                throw new IllegalArgumentException("El campo " + i + " de la operación " + pCampos.get(0) +
+                        " está vacío");
+            }
+        }
+    }
+
+    /**
+     * Lee el tipo de subscripción de un campo.
+     * @param pCampo REGULAR o VIP.
+     * @return El tipo de subscripción.
+     * @throws IllegalArgumentException Si el campo no es un tipo.
+     */
+    private static Tipo leerTipo(String pCampo) {
+        for(Tipo tipo : Tipo.values()) {
+            if(tipo.name().equals(pCampo)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de subscripción desconocido: " + pCampo);
+    }
+
+    /**
+     * Lee un valor de dinero de un campo.
+     * @param pCampo Valor en unidades, por ejemplo 12.50.
+     * @return El valor en centavos, mayor que cero.
+     * @throws NumberFormatException Si el campo no es un número.
+     * @throws IllegalArgumentException Si el valor no es mayor que cero.
+     */
+    private static long leerValor(String pCampo) {
+        long valor = Dinero.leer(pCampo);
+        if(valor <= 0) {
+            throw new IllegalArgumentException("El valor debe ser mayor que cero: " + pCampo);
+        }
+        return valor;
+    }
+}
@@ -1,337 +1,527 @@
 package AplicacionClub;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import club.*;
 import club.Socio.Tipo;
 import club.Excepciones.*;
+import club.Persistencia.AlmacenClub;
+import club.Persistencia.ArchivoSociosMapeado;
+import club.Persistencia.ImportadorSocios;
 
 /**
  * Clase principal del sistema de administración del Club.
  */
 public class Main {
 
+    /**
+     * Directorio de datos que se usa si no se indica otro con --datos.
+     */
+    private final static String DATOS_POR_DEFECTO = "datos-club";
+
+    /**
+     * Minutos entre las instantáneas que se toman del club.
+     */
+    private final static int MINUTOS_ENTRE_INSTANTANEAS = 5;
+
+    /**
+     * Cantidad de mayores consumidores que se muestran en el reporte del club.
+     */
+    private final static int MAYORES_CONSUMIDORES = 10;
+
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        Consola consola = new Consola(System.in, System.out);
         int opcion;
-        Club club = new Club();
-
-        do {
-            mostrarMenu();
-            opcion = leerEntero(sc, "Ingrese una opción: ");
-
-            switch(opcion) {
-                case 1:
-                    afiliarSocio(sc, club);
-                    break;
-                case 2:
-                    registrarAutorizado(sc, club);
-                    break;
-                case 3:
-                    pagarFactura(sc, club);
-                    break;
-                case 4:
-                    registrarConsumo(sc, club);
-                    break;
-                case 5:
-                    aumentarFondos(sc, club);
-                    break;
-                case 6:
-                    calcularTotalConsumos(sc, club);
-                    break;
-                case 7:
-                    verificarEliminacionSocio(sc, club);
-                    break;
-                case 8:
-                    System.out.println("\n¡Gracias por usar el sistema!");
-                    break;
-                default:
-                    System.out.println("Opción inválida. Intente nuevamente.");
+
+        // La consola solo muestra los mensajes de los rechazos, nunca sus trazas
+        RechazoException.capturarTrazas(false);
+
+        AlmacenClub almacen;
+        try {
+            Path mapeado = darRutaOpcion(args, "--mapeado");
+            FormatoFacturas formato = Arrays.asList(args).contains("--facturas-columnas")
+                    ? FormatoFacturas.COLUMNAS
+                    : FormatoFacturas.OBJETOS;
+            AlmacenSocios socios = mapeado == null ? AlmacenSocios.MEMORIA : new ArchivoSociosMapeado(mapeado);
+            Club nuevo = Arrays.asList(args).contains("--un-escritor")
+                    ? new ClubUnEscritor(socios, formato, ClubUnEscritor.CAPACIDAD_POR_DEFECTO)
+                    : new Club(socios, formato);
+            almacen = new AlmacenClub(darRutaDatos(args), nuevo);
+        } catch(IOException | RechazoException e) {
+            consola.escribirLinea("Error: No se pudieron cargar los datos del club. " + e.getMessage());
+            consola.vaciar();
+            return;
+        }
+        Club club = almacen.darClub();
+        almacen.programarInstantaneas(MINUTOS_ENTRE_INSTANTANEAS, TimeUnit.MINUTES);
+        consola.escribirLinea("Club recuperado en " + almacen.darMilisegundosRecuperacion() + " ms: " +
+                club.darSocios().size() + " socios, " +
+                almacen.darRegistrosReproducidos() + " registros de la bitácora.");
+        if(almacen.darRegistrosOmitidos() > 0) {
+            consola.escribirLinea("Advertencia: se omitieron " + almacen.darRegistrosOmitidos() +
+                    " registros de la bitácora que el club rechazó.");
+        }
+
+        Path importar = darRutaOpcion(args, "--importar");
+        if(importar != null) {
+            importarSocios(consola, club, importar);
+        }
+
+        String script = darOpcion(args, "--script");
+        if(script != null) {
+            ejecutarScript(consola, club, script);
+            cerrarAlmacen(consola, almacen);
+            consola.vaciar();
+            return;
+        }
+
+        String puerto = darOpcion(args, "--servidor");
+        if(puerto != null) {
+            atenderServidor(consola, club, almacen, Integer.parseInt(puerto));
+            return;
+        }
+
+        // La salida solo se envía al hacer una pregunta; si la entrada termina se sale como con la opción 9
+        try {
+            do {
+                mostrarMenu(consola);
+                opcion = leerEntero(consola, "Ingrese una opción: ");
+
+                switch(opcion) {
+                    case 1:
+                        afiliarSocio(consola, club);
+                        break;
+                    case 2:
+                        registrarAutorizado(consola, club);
+                        break;
+                    case 3:
+                        pagarFactura(consola, club);
+                        break;
+                    case 4:
+                        registrarConsumo(consola, club);
+                        break;
+                    case 5:
+                        aumentarFondos(consola, club);
+                        break;
+                    case 6:
+                        calcularTotalConsumos(consola, club);
+                        break;
+                    case 7:
+                        verificarEliminacionSocio(consola, club);
+                        break;
+                    case 8:
+                        generarReporte(consola, club);
+                        break;
+                    case 9:
+                        consola.escribirLinea("\n¡Gracias por usar el sistema!");
+                        break;
+                    default:
+                        consola.escribirLinea("Opción inválida. Intente nuevamente.");
+                }
+
+            } while(opcion != 9);
+        } catch(UncheckedIOException e) {
+            consola.escribirLinea("\nLa entrada terminó; se cierra el sistema.");
+        }
+
+        cerrarAlmacen(consola, almacen);
+        consola.vaciar();
+    }
+
+    private static void cerrarAlmacen(Consola consola, AlmacenClub almacen) {
+        try {
+            almacen.close();
+        } catch(IOException e) {
+            consola.escribirLinea("Error: No se pudieron guardar los datos del club. " + e.getMessage());
+        }
+    }
+
+    private static void ejecutarScript(Consola consola, Club club, String origen) {
+        InterpreteComandos interprete = new InterpreteComandos(club);
+        long operaciones = 0;
+        long rechazos = 0;
+        long inicio = System.nanoTime();
+
+        // Cada línea es una operación de InterpreteComandos; las vacías y las que empiezan por # se ignoran
+        try(BufferedReader entrada = origen.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(origen), StandardCharsets.UTF_8)) {
+            long numeroLinea = 1;
+            String linea = entrada.readLine();
+            while(linea != null) {
+                linea = linea.trim();
+                if(!linea.isEmpty() && linea.charAt(0) != '#') {
+                    String respuesta;
+                    try {
+                        respuesta = interprete.ejecutar(linea);
+                    } catch(IllegalStateException e) {
+                        // La bitácora se cerró o falló: ninguna operación siguiente se podría guardar
+                        consola.escribirLinea("Error: La operación de la línea " + numeroLinea +
+                                " no se pudo guardar; el script se detiene. " + e.getMessage());
+                        break;
+                    }
+                    consola.escribirLinea(respuesta);
+                    operaciones++;
+                    if(!respuesta.startsWith(InterpreteComandos.OK)) {
+                        rechazos++;
+                    }
+                }
+                linea = entrada.readLine();
+                numeroLinea++;
+            }
+        } catch(IOException e) {
+            consola.escribirLinea("Error: No se pudo leer el script. " + e.getMessage());
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        consola.escribirLinea(String.format("# %d operaciones (%d rechazadas) en %.3f s: %.0f operaciones/s",
+                operaciones, rechazos, segundos, operaciones / Math.max(segundos, 1e-9)));
+    }
+
+    private static void atenderServidor(Consola consola, Club club, AlmacenClub almacen, int puerto) {
+        ServidorClub servidor;
+        try {
+            servidor = new ServidorClub(club, puerto);
+        } catch(IOException e) {
+            consola.escribirLinea("Error: No se pudo abrir el servidor del club. " + e.getMessage());
+            cerrarAlmacen(consola, almacen);
+            consola.vaciar();
+            return;
+        }
+
+        // El servidor atiende hasta que se detenga el proceso; al detenerlo se guardan los datos
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                servidor.close();
+            } catch(IOException e) {
+                consola.escribirLinea("Error: No se pudo cerrar el servidor del club. " + e.getMessage());
             }
+            cerrarAlmacen(consola, almacen);
+            consola.vaciar();
+        }));
+
+        consola.escribirLinea("Servidor del club escuchando en el puerto " + servidor.darPuerto() + ".");
+        consola.vaciar();
+        try {
+            servidor.atender();
+        } catch(IOException e) {
+            consola.escribirLinea("Error: El servidor del club se detuvo. " + e.getMessage());
+            consola.vaciar();
+        }
+    }
+
+    private static Path darRutaDatos(String[] args) {
+        Path datos = darRutaOpcion(args, "--datos");
+        return datos != null ? datos : Paths.get(DATOS_POR_DEFECTO);
+    }
+
+    private static Path darRutaOpcion(String[] args, String opcion) {
+        String valor = darOpcion(args, opcion);
+        return valor != null ? Paths.get(valor) : null;
+    }
 
-        } while(opcion != 8);
+    private static String darOpcion(String[] args, String opcion) {
+        for(int i = 0; i + 1 < args.length; i++) {
+            if(args[i].equals(opcion)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
 
-        sc.close();
+    private static void importarSocios(Consola consola, Club club, Path archivo) {
+        Path rechazos = archivo.resolveSibling(archivo.getFileName() + ".rechazos.csv");
+        ImportadorSocios importador = new ImportadorSocios(club);
+        try {
+            importador.importar(archivo, rechazos);
+            consola.escribirLinea("Importación terminada: " + importador.darAceptados() + " socios afiliados, " +
+                    importador.darRechazados() + " filas rechazadas (ver " + rechazos + ").");
+        } catch(IOException e) {
+            consola.escribirLinea("Error: No se pudo importar el archivo de socios. " + e.getMessage());
+        }
     }
 
-    private static void mostrarMenu() {
-        System.out.println("\n========== SISTEMA DE ADMINISTRACIÓN DEL CLUB ==========");
-        System.out.println("1. Afiliar un socio al club");
-        System.out.println("2. Registrar persona autorizada");
-        System.out.println("3. Pagar una factura");
-        System.out.println("4. Registrar un consumo");
-        System.out.println("5. Aumentar fondos");
-        System.out.println("6. Calcular total de consumos");
-        System.out.println("7. Verificar si se puede eliminar socio");
-        System.out.println("8. Salir");
-        System.out.println("========================================================");
+    private static void mostrarMenu(Consola consola) {
+        consola.escribirLinea("\n========== SISTEMA DE ADMINISTRACIÓN DEL CLUB ==========");
+        consola.escribirLinea("1. Afiliar un socio al club");
+        consola.escribirLinea("2. Registrar persona autorizada");
+        consola.escribirLinea("3. Pagar una factura");
+        consola.escribirLinea("4. Registrar un consumo");
+        consola.escribirLinea("5. Aumentar fondos");
+        consola.escribirLinea("6. Calcular total de consumos");
+        consola.escribirLinea("7. Verificar si se puede eliminar socio");
+        consola.escribirLinea("8. Generar reporte del club");
+        consola.escribirLinea("9. Salir");
+        consola.escribirLinea("========================================================");
     }
 
-    private static void afiliarSocio(Scanner sc, Club club) {
+    private static void afiliarSocio(Consola consola, Club club) {
         try {
-            System.out.println("\n--- AFILIAR NUEVO SOCIO ---");
+            consola.escribirLinea("\n--- AFILIAR NUEVO SOCIO ---");
 
-            System.out.print("Ingrese cédula: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
-            System.out.print("Ingrese nombre completo: ");
-            String nombre = sc.nextLine().trim();
+            String nombre = consola.preguntar("Ingrese nombre completo: ");
             if(nombre.isEmpty()) {
-                System.out.println("Error: El nombre no puede estar vacío.");
+                consola.escribirLinea("Error: El nombre no puede estar vacío.");
                 return;
             }
 
-            int tipoNum = leerEntero(sc, "Tipo de suscripción (1=Regular, 2=VIP): ");
+            int tipoNum = leerEntero(consola, "Tipo de suscripción (1=Regular, 2=VIP): ");
             if(tipoNum != 1 && tipoNum != 2) {
-                System.out.println("Error: Tipo inválido. Debe ser 1 o 2.");
+                consola.escribirLinea("Error: Tipo inválido. Debe ser 1 o 2.");
                 return;
             }
 
             Tipo tipo = (tipoNum == 2) ? Tipo.VIP : Tipo.REGULAR;
             club.afiliarSocio(cedula, nombre, tipo);
 
-            System.out.println("Socio afiliado exitosamente.");
-            System.out.println("Tipo: " + tipo);
-            System.out.println("Fondos iniciales: $" +
-                    (tipo == Tipo.VIP ? Socio.FONDOS_INICIALES_VIP : Socio.FONDOS_INICIALES_REGULARES));
+            consola.escribirLinea("Socio afiliado exitosamente.");
+            consola.escribirLinea("Tipo: " + tipo);
+            consola.escribirLinea("Fondos iniciales: $" + Dinero.formatear(tipo == Tipo.VIP
+                    ? Socio.FONDOS_INICIALES_VIP_CENTAVOS
+                    : Socio.FONDOS_INICIALES_REGULARES_CENTAVOS));
 
         } catch(SocioYaExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(LimiteVIPException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
+        } catch(DatoInvalidoException e) {
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void registrarAutorizado(Scanner sc, Club club) {
+    private static void registrarAutorizado(Consola consola, Club club) {
         try {
-            System.out.println("\n--- REGISTRAR PERSONA AUTORIZADA ---");
+            consola.escribirLinea("\n--- REGISTRAR PERSONA AUTORIZADA ---");
 
-            System.out.print("Ingrese cédula del socio: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula del socio: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
-            System.out.print("Ingrese nombre de la persona autorizada: ");
-            String nombreAutorizado = sc.nextLine().trim();
+            String nombreAutorizado = consola.preguntar("Ingrese nombre de la persona autorizada: ");
             if(nombreAutorizado.isEmpty()) {
-                System.out.println("Error: El nombre no puede estar vacío.");
+                consola.escribirLinea("Error: El nombre no puede estar vacío.");
                 return;
             }
 
             club.agregarAutorizadoSocio(cedula, nombreAutorizado);
-            System.out.println("Persona autorizada registrada exitosamente.");
+            consola.escribirLinea("Persona autorizada registrada exitosamente.");
 
         } catch(SocioNoExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(AutorizadoInvalidoException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(FondosInsuficientesException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(AutorizadoYaExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
+        } catch(DatoInvalidoException e) {
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void pagarFactura(Scanner sc, Club club) {
+    private static void pagarFactura(Consola consola, Club club) {
         try {
-            System.out.println("\n--- PAGAR FACTURA ---");
+            consola.escribirLinea("\n--- PAGAR FACTURA ---");
 
-            System.out.print("Ingrese cédula del socio: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula del socio: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
             ArrayList<Factura> facturas = club.darFacturasSocio(cedula);
 
             if(facturas.isEmpty()) {
-                System.out.println("El socio no tiene facturas pendientes.");
+                consola.escribirLinea("El socio no tiene facturas pendientes.");
                 return;
             }
 
-            System.out.println("\nFacturas pendientes:");
-            for(int i = 0; i < facturas.size(); i++) {
-                System.out.println("[" + i + "] " + facturas.get(i).toString());
+            consola.escribirLinea("\nFacturas pendientes:");
+            for(Factura factura : facturas) {
+                consola.escribirLinea("[" + factura.darId() + "] " + factura.toString());
             }
 
-            int indice = leerEntero(sc, "Ingrese número de la factura a pagar: ");
-
-            if(indice < 0 || indice >= facturas.size()) {
-                System.out.println("Error: Número de factura inválido.");
-                return;
-            }
+            long id = leerLargo(consola, "Ingrese número de la factura a pagar: ");
 
-            club.pagarFacturaSocio(cedula, indice);
-            System.out.println("Factura pagada exitosamente.");
+            club.pagarFacturaSocioPorId(cedula, id);
+            consola.escribirLinea("Factura pagada exitosamente.");
 
         } catch(SocioNoExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
+        } catch(FacturaNoExisteException e) {
+            consola.escribirLinea("Error: Número de factura inválido.");
         } catch(FondosInsuficientesException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void registrarConsumo(Scanner sc, Club club) {
+    private static void registrarConsumo(Consola consola, Club club) {
         try {
-            System.out.println("\n--- REGISTRAR CONSUMO ---");
+            consola.escribirLinea("\n--- REGISTRAR CONSUMO ---");
 
-            System.out.print("Ingrese cédula del socio: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula del socio: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
-            System.out.print("Ingrese nombre de quien consume: ");
-            String nombreCliente = sc.nextLine().trim();
+            String nombreCliente = consola.preguntar("Ingrese nombre de quien consume: ");
             if(nombreCliente.isEmpty()) {
-                System.out.println("Error: El nombre no puede estar vacío.");
+                consola.escribirLinea("Error: El nombre no puede estar vacío.");
                 return;
             }
 
-            System.out.print("Ingrese concepto del consumo: ");
-            String concepto = sc.nextLine().trim();
+            String concepto = consola.preguntar("Ingrese concepto del consumo: ");
             if(concepto.isEmpty()) {
-                System.out.println("Error: El concepto no puede estar vacío.");
+                consola.escribirLinea("Error: El concepto no puede estar vacío.");
                 return;
             }
 
-            double valor = leerDouble(sc, "Ingrese valor del consumo: $");
+            long valor = leerValor(consola, "Ingrese valor del consumo: $");
             if(valor <= 0) {
-                System.out.println("Error: El valor debe ser mayor a 0.");
+                consola.escribirLinea("Error: El valor debe ser mayor a 0.");
                 return;
             }
 
-            club.registrarConsumo(cedula, nombreCliente, concepto, valor);
-            System.out.println("Consumo registrado exitosamente.");
-            System.out.println("Se generó una factura por $" + valor);
+            club.registrarConsumoCentavos(cedula, nombreCliente, concepto, valor);
+            consola.escribirLinea("Consumo registrado exitosamente.");
+            consola.escribirLinea("Se generó una factura por $" + Dinero.formatear(valor));
 
         } catch(SocioNoExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(FondosInsuficientesException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
+        } catch(DatoInvalidoException e) {
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void aumentarFondos(Scanner sc, Club club) {
+    private static void aumentarFondos(Consola consola, Club club) {
         try {
-            System.out.println("\n--- AUMENTAR FONDOS ---");
+            consola.escribirLinea("\n--- AUMENTAR FONDOS ---");
 
-            System.out.print("Ingrese cédula del socio: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula del socio: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
             Socio socio = club.buscarSocio(cedula);
             if(socio == null) {
-                System.out.println("Error: No existe un socio con la cédula: " + cedula);
+                consola.escribirLinea("Error: No existe un socio con la cédula: " + cedula);
                 return;
             }
 
-            System.out.println("Fondos actuales: $" + socio.darFondos());
-            System.out.println("Límite máximo: $" +
-                    (socio.darTipo() == Tipo.VIP ? Socio.MONTO_MAXIMO_VIP : Socio.MONTO_MAXIMO_REGULARES));
+            consola.escribirLinea("Fondos actuales: $" + Dinero.formatear(socio.darFondosCentavos()));
+            consola.escribirLinea("Límite máximo: $" + Dinero.formatear(socio.darTipo() == Tipo.VIP
+                    ? Socio.MONTO_MAXIMO_VIP_CENTAVOS
+                    : Socio.MONTO_MAXIMO_REGULARES_CENTAVOS));
 
-            double monto = leerDouble(sc, "Ingrese monto a aumentar: $");
+            long monto = leerValor(consola, "Ingrese monto a aumentar: $");
             if(monto <= 0) {
-                System.out.println("Error: El monto debe ser mayor a 0.");
+                consola.escribirLinea("Error: El monto debe ser mayor a 0.");
                 return;
             }
 
-            club.aumentarFondosSocio(cedula, monto);
-            System.out.println("Fondos aumentados exitosamente.");
-            System.out.println("Nuevos fondos: $" + socio.darFondos());
+            club.aumentarFondosSocioCentavos(cedula, monto);
+            consola.escribirLinea("Fondos aumentados exitosamente.");
+            consola.escribirLinea("Nuevos fondos: $" + Dinero.formatear(socio.darFondosCentavos()));
 
         } catch(SocioNoExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         } catch(LimiteFondosException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void calcularTotalConsumos(Scanner sc, Club club) {
+    private static void calcularTotalConsumos(Consola consola, Club club) {
         try {
-            System.out.println("\n--- CALCULAR TOTAL DE CONSUMOS ---");
+            consola.escribirLinea("\n--- CALCULAR TOTAL DE CONSUMOS ---");
 
-            System.out.print("Ingrese cédula del socio: ");
-            String cedula = sc.nextLine().trim();
+            String cedula = consola.preguntar("Ingrese cédula del socio: ");
             if(cedula.isEmpty()) {
-                System.out.println("Error: La cédula no puede estar vacía.");
+                consola.escribirLinea("Error: La cédula no puede estar vacía.");
                 return;
             }
 
-            double total = club.calcularTotalConsumos(cedula);
+            long total = club.calcularTotalConsumosCentavos(cedula);
 
-            System.out.println("\n========================================");
+            consola.escribirLinea("\n========================================");
             if(total == 0) {
-                System.out.println("El socio no tiene consumos registrados.");
-                System.out.println("Total de consumos: $0.00");
+                consola.escribirLinea("El socio no tiene consumos registrados.");
+                consola.escribirLinea("Total de consumos: $0.00");
             } else {
-                System.out.println("Total de consumos: $" + total);
+                consola.escribirLinea("Total de consumos: $" + Dinero.formatear(total));
             }
-            System.out.println("========================================");
+            consola.escribirLinea("========================================");
 
         } catch(SocioNoExisteException e) {
-            System.out.println("Error: " + e.getMessage());
+            consola.escribirLinea("Error: " + e.getMessage());
         }
     }
 
-    private static void verificarEliminacionSocio(Scanner sc, Club club) {
-        System.out.println("\n--- VERIFICAR SI SE PUEDE ELIMINAR SOCIO ---");
+    private static void verificarEliminacionSocio(Consola consola, Club club) {
+        consola.escribirLinea("\n--- VERIFICAR SI SE PUEDE ELIMINAR SOCIO ---");
 
-        System.out.print("Ingrese cédula del socio: ");
-        String cedula = sc.nextLine().trim();
+        String cedula = consola.preguntar("Ingrese cédula del socio: ");
         if(cedula.isEmpty()) {
-            System.out.println("Error: La cédula no puede estar vacía.");
+            consola.escribirLinea("Error: La cédula no puede estar vacía.");
             return;
         }
 
         String resultado = club.sePuedeEliminarSocio(cedula);
-        System.out.println("\n" + resultado);
+        consola.escribirLinea("\n" + resultado);
     }
 
-    private static int leerEntero(Scanner sc, String mensaje) {
-        int numero = 0;
-        boolean valido = false;
+    private static void generarReporte(Consola consola, Club club) {
+        consola.escribirLinea("\n--- REPORTE DEL CLUB ---");
+        consola.escribir(club.generarReporte(MAYORES_CONSUMIDORES).toString());
+    }
 
-        while(!valido) {
+    private static int leerEntero(Consola consola, String mensaje) {
+        while(true) {
             try {
-                System.out.print(mensaje);
-                String linea = sc.nextLine().trim();
-                numero = Integer.parseInt(linea);
-                valido = true;
+                return Consola.aEntero(consola.preguntar(mensaje));
             } catch(NumberFormatException e) {
-                System.out.println("Error: Debe ingresar un número entero válido.");
+                consola.escribirLinea("Error: Debe ingresar un número entero válido.");
             }
         }
-
-        return numero;
     }
 
-    private static double leerDouble(Scanner sc, String mensaje) {
-        double numero = 0;
-        boolean valido = false;
-
-        while(!valido) {
+    private static long leerLargo(Consola consola, String mensaje) {
+        while(true) {
             try {
-                System.out.print(mensaje);
-                String linea = sc.nextLine().trim();
-                numero = Double.parseDouble(linea);
-                valido = true;
+                return Long.parseLong(consola.preguntar(mensaje));
             } catch(NumberFormatException e) {
-                System.out.println("Error: Debe ingresar un número válido.");
+                consola.escribirLinea("Error: Debe ingresar un número entero válido.");
             }
         }
+    }
 
-        return numero;
+    private static long leerValor(Consola consola, String mensaje) {
+        while(true) {
+            try {
+                return Dinero.leer(consola.preguntar(mensaje));
+            } catch(NumberFormatException | ArithmeticException e) {
+                consola.escribirLinea("Error: Debe ingresar un número válido.");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package AplicacionClub;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import club.Club;
+
+/**
+ * Servidor de líneas de texto que atiende a los puntos de venta por TCP en la máquina local.
+ * Cada conexión envía operaciones con el formato de InterpreteComandos, una por línea, y recibe
+ * una línea de respuesta por cada una, en el mismo orden. Un cliente puede enviar varias
+ * operaciones sin esperar sus respuestas; las respuestas se envían juntas cuando no quedan
+ * operaciones por leer.
+ * Cada conexión se atiende en su propio hilo. Si la máquina virtual tiene hilos virtuales se usa
+ * uno por conexión, de modo que miles de puntos de venta conectados cuestan poca memoria; si no,
+ * se usan hilos de plataforma que se reutilizan entre conexiones.
+ */
+public class ServidorClub implements Closeable {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de conexiones que pueden esperar a ser aceptadas.
+     */
+    private final static int CONEXIONES_EN_ESPERA = 1024;
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Intérprete que ejecuta las operaciones de todas las conexiones.
+     */
+    private final InterpreteComandos interprete;
+
+    /**
+     * Socket donde se aceptan las conexiones.
+     */
+    private final ServerSocket servidor;
+
+    /**
+     * Hilos que atienden las conexiones.
+     */
+    private final ExecutorService conexiones;
+
+    /**
+     * Conexiones aceptadas que todavía no se han cerrado.
+     */
+    private final Set<Socket> abiertas;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Abre el servidor del club en el puerto dado de la máquina local.
+     * post: El servidor acepta conexiones, pero no las atiende hasta que se llame atender.
+     * @param pClub Club sobre el que se ejecutan las operaciones. pClub != null.
+     * @param pPuerto Puerto del servidor; 0 para usar cualquier puerto libre.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServidorClub(Club pClub, int pPuerto) throws IOException {
+        interprete = new InterpreteComandos(pClub);
+        servidor = new ServerSocket(pPuerto, CONEXIONES_EN_ESPERA, InetAddress.getLoopbackAddress());
+        conexiones = crearHilos("conexion-club");
+        abiertas = ConcurrentHashMap.newKeySet();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna el puerto donde el servidor acepta conexiones.
+     * @return El puerto del servidor.
+     */
+    public int darPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * Acepta y atiende conexiones hasta que se cierre el servidor.
+     * @throws IOException Si falla el socket del servidor por otra razón que su cierre.
+     */
+    public void atender() throws IOException {
+        while(true) {
+            Socket conexion;
+            try {
+                conexion = servidor.accept();
+            } catch(SocketException e) {
+                if(servidor.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            abiertas.add(conexion);
+            // Si el servidor se cerró mientras tanto, close ya no ve esta conexión
+            if(servidor.isClosed()) {
+                cerrarConexion(conexion);
+                return;
+            }
+            conexiones.execute(() -> atenderConexion(conexion));
+        }
+    }
+
+    /**
+     * Atiende las operaciones de una conexión hasta que el cliente la cierre.
+     * @param pConexion Conexión con el punto de venta.
+     */
+    private void atenderConexion(Socket pConexion) {
+        try(Socket conexion = pConexion;
+            BufferedReader entrada = new BufferedReader(
+                    new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter salida = new BufferedWriter(
+                    new OutputStreamWriter(conexion.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            conexion.setTcpNoDelay(true);
+            String linea = entrada.readLine();
+            while(linea != null) {
+                salida.write(interprete.ejecutar(linea));
+                salida.newLine();
+                // Las respuestas se acumulan mientras el cliente tenga más operaciones en camino
+                if(!entrada.ready()) {
+                    salida.flush();
+                }
+                linea = entrada.readLine();
+            }
+        } catch(IOException e) {
+            // El punto de venta se desconectó o el servidor se cerró; sus operaciones ya ejecutadas quedan en el club
+        } finally {
+            abiertas.remove(pConexion);
+        }
+    }
+
+    /**
+     * Cierra una conexión, ignorando los errores porque ya no se va a usar.
+     * @param pConexion Conexión a cerrar.
+     */
+    private void cerrarConexion(Socket pConexion) {
+        abiertas.remove(pConexion);
+        try {
+            pConexion.close();
+        } catch(IOException e) {
+            // La conexión ya no se puede usar de ningún modo
+        }
+    }
+
+    /**
+     * Deja de aceptar conexiones, cierra las abiertas y espera un momento a que terminen las
+     * operaciones que se estaban ejecutando. Cerrar cada conexión despierta al hilo que la atiende
+     * aunque esté esperando una línea del cliente.
+     * post: El puerto y las conexiones están cerrados.
+     * @throws IOException Si no se puede cerrar el socket del servidor.
+     */
+    public void close() throws IOException {
+        servidor.close();
+        for(Socket conexion : abiertas) {
+            cerrarConexion(conexion);
+        }
+        conexiones.shutdown();
+        try {
+            conexiones.awaitTermination(5, TimeUnit.SECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Crea el ejecutor de las tareas de cada conexión: uno que crea un hilo virtual por tarea si
+     * la máquina virtual los tiene (Java 21 o posterior), o uno de hilos de plataforma que se
+     * reutilizan. Se busca por reflexión para que el programa siga compilando con Java 17.
+     * @param pNombre Nombre de los hilos de plataforma.
+     * @return El ejecutor.
+     */
+    static ExecutorService crearHilos(String pNombre) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarea -> {
+                Thread hilo = new Thread(tarea, pNombre);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package club;
+
+import java.util.ArrayList;
+import club.Socio.Tipo;
+
+/**
+ * Clase que modela la afiliación pendiente de un socio junto con sus personas autorizadas,
+ * por ejemplo una fila de una carga masiva de socios.
+ */
+public class Afiliacion {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cédula del socio a afiliar.
+     */
+    private final String cedula;
+
+    /**
+     * Nombre del socio a afiliar.
+     */
+    private final String nombre;
+
+    /**
+     * Tipo de subscripción del socio.
+     */
+    private final Tipo tipo;
+
+    /**
+     * Nombres de las personas autorizadas por el socio.
+     */
+    private final ArrayList<String> autorizados;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Construye una afiliación con los datos dados.
+     * @param pCedula Cédula del socio. pCedula != null && pCedula != "".
+     * @param pNombre Nombre del socio. pNombre != null && pNombre != "".
+     * @param pTipo Tipo de subscripción del socio. pTipo != null.
+     * @param pAutorizados Nombres de las personas autorizadas, puede estar vacía. pAutorizados != null.
+     */
+    public Afiliacion(String pCedula, String pNombre, Tipo pTipo, ArrayList<String> pAutorizados) {
+        cedula = pCedula;
+        nombre = pNombre;
+        tipo = pTipo;
+        autorizados = pAutorizados;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna la cédula del socio.
+     * @return La cédula.
+     */
+    public String darCedula() {
+        return cedula;
+    }
+
+    /**
+     * Retorna el nombre del socio.
+     * @return El nombre.
+     */
+    public String darNombre() {
+        return nombre;
+    }
+
+    /**
+     * Retorna el tipo de subscripción del socio.
+     * @return El tipo.
+     */
+    public Tipo darTipo() {
+        return tipo;
+    }
+
+    /**
+     * Retorna los nombres de las personas autorizadas por el socio.
+     * @return La lista de autorizados.
+     */
+    public ArrayList<String> darAutorizados() {
+        return autorizados;
+    }
+}
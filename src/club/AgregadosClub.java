@@ -0,0 +1,126 @@
+package club;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import club.Socio.Tipo;
+
+/**
+ * Cifras de todo el club que se actualizan con cada modificación, para consultarlas con
+ * frecuencia sin recorrer los socios: total pendiente, fondos por tipo y ventas por concepto.
+ * Los contadores son LongAdder, así que los puntos de venta los actualizan sin competir entre sí
+ * y una consulta solo suma unas pocas celdas. Cada cifra es exacta cuando el club está quieto;
+ * mientras hay modificaciones en curso puede no incluir todavía las más recientes.
+ */
+public class AgregadosClub {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Total de las facturas pendientes de todos los socios, en centavos.
+     */
+    private final LongAdder totalPendiente;
+
+    /**
+     * Fondos de los socios de cada tipo, en centavos.
+     */
+    private final EnumMap<Tipo, LongAdder> fondosPorTipo;
+
+    /**
+     * Valor de los consumos registrados de cada concepto, en centavos.
+     */
+    private final ConcurrentHashMap<String, LongAdder> ventasPorConcepto;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea las cifras de un club vacío.
+     */
+    AgregadosClub() {
+        totalPendiente = new LongAdder();
+        fondosPorTipo = new EnumMap<Tipo, LongAdder>(Tipo.class);
+        for(Tipo tipo : Tipo.values()) {
+            fondosPorTipo.put(tipo, new LongAdder());
+        }
+        ventasPorConcepto = new ConcurrentHashMap<String, LongAdder>();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna el total de las facturas pendientes de todo el club.
+     * @return El total pendiente en centavos.
+     */
+    public long darTotalPendienteCentavos() {
+        return totalPendiente.sum();
+    }
+
+    /**
+     * Retorna la suma de los fondos de los socios del tipo dado.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return Los fondos en centavos.
+     */
+    public long darFondosCentavos(Tipo pTipo) {
+        return fondosPorTipo.get(pTipo).sum();
+    }
+
+    /**
+     * Retorna el valor de los consumos registrados con el concepto dado. Incluye las facturas
+     * pendientes recuperadas de una instantánea, pero no los consumos pagados antes de tomarla.
+     * @param pConcepto Concepto de los consumos. pConcepto != null.
+     * @return Las ventas del concepto en centavos, 0 si no hay consumos con ese concepto.
+     */
+    public long darVentasCentavos(String pConcepto) {
+        LongAdder ventas = ventasPorConcepto.get(pConcepto);
+        return ventas == null ? 0 : ventas.sum();
+    }
+
+    /**
+     * Retorna las ventas de cada concepto.
+     * @return Mapa con las ventas en centavos por concepto.
+     */
+    public HashMap<String, Long> darVentasPorConcepto() {
+        HashMap<String, Long> ventas = new HashMap<String, Long>();
+        for(Map.Entry<String, LongAdder> concepto : ventasPorConcepto.entrySet()) {
+            ventas.put(concepto.getKey(), concepto.getValue().sum());
+        }
+        return ventas;
+    }
+
+    /**
+     * Registra un consumo.
+     * @param pConcepto Concepto del consumo.
+     * @param pValor Valor del consumo en centavos.
+     */
+    void registrarConsumo(String pConcepto, long pValor) {
+        totalPendiente.add(pValor);
+        ventasPorConcepto.computeIfAbsent(pConcepto, concepto -> new LongAdder()).add(pValor);
+    }
+
+    /**
+     * Registra el pago de una factura, que sale de los fondos del socio.
+     * @param pTipo Tipo del socio que pagó.
+     * @param pValor Valor de la factura en centavos.
+     */
+    void registrarPago(Tipo pTipo, long pValor) {
+        totalPendiente.add(-pValor);
+        fondosPorTipo.get(pTipo).add(-pValor);
+    }
+
+    /**
+     * Registra un cambio en los fondos de un socio.
+     * @param pTipo Tipo del socio.
+     * @param pValor Cambio de los fondos en centavos; negativo si disminuyen.
+     */
+    void registrarFondos(Tipo pTipo, long pValor) {
+        fondosPorTipo.get(pTipo).add(pValor);
+    }
+}
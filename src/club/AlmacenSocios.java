@@ -0,0 +1,40 @@
+package club;
+
+/**
+ * Almacenamiento donde viven los fondos de los socios. La cédula, el nombre, el tipo, los autorizados
+ * y las facturas siempre quedan en el socio.
+ * El club le pide una celda de fondos a su almacenamiento cada vez que afilia un socio.
+ */
+public interface AlmacenSocios {
+
+    /**
+     * Almacenamiento que guarda los fondos en el montículo, dentro de cada socio.
+     * Es el que usa el club si no se le indica otro.
+     */
+    AlmacenSocios MEMORIA = new AlmacenSocios() {
+        public CeldaFondos reservar(long pFondos) {
+            return new CeldaFondosMemoria(pFondos);
+        }
+        public void liberar(CeldaFondos pCelda) { }
+    };
+
+    /**
+     * Reserva la celda de fondos de un socio nuevo.
+     * @param pFondos Fondos iniciales del socio en centavos.
+     * @return La celda donde quedan los fondos del socio.
+     */
+    CeldaFondos reservar(long pFondos);
+
+    /**
+     * Libera la celda de un socio que ya no está en el club.
+     * @param pCelda Celda retornada por reservar.
+     */
+    void liberar(CeldaFondos pCelda);
+
+    /**
+     * Prepara el almacenamiento para guardar la cantidad de socios dada.
+     * @param pSocios Cantidad total de socios que se espera guardar. pSocios >= 0.
+     */
+    default void asegurarCapacidad(int pSocios) {
+    }
+}
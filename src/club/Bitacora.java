@@ -0,0 +1,105 @@
+package club;
+
+import club.Socio.Tipo;
+
+/**
+ * Registro de las modificaciones que se hacen sobre el club.
+ * El club anota cada modificación exitosa mientras tiene el candado del socio afectado,
+ * de modo que el orden de las anotaciones de un socio es el mismo en que se aplicaron.
+ * Cada anotación retorna un número de secuencia; el club espera a que esa secuencia sea
+ * durable ya sin el candado, lo que permite agrupar varias anotaciones en una sola escritura.
+ * <p>
+ * El club revisa los datos y llama a revisarEscritura antes de modificar nada, así que una anotación
+ * solo falla si la bitácora deja de poder escribir entre esa revisión y la anotación. En ese caso el
+ * último cambio ya está en memoria pero no es durable: quien lo pidió recibe el error, la bitácora
+ * queda inutilizable y cualquier modificación posterior se rechaza, de modo que el club debe
+ * reiniciarse desde el disco, donde ese cambio no existe.
+ */
+public interface Bitacora {
+
+    /**
+     * Bitácora que no guarda nada. Es la que usa el club mientras no se le asigne otra.
+     */
+    Bitacora VACIA = new Bitacora() {
+        public long anotarAfiliacion(String pCedula, String pNombre, Tipo pTipo) { return 0; }
+        public long anotarAutorizadoAgregado(String pCedula, String pNombreAutorizado) { return 0; }
+        public long anotarAutorizadoEliminado(String pCedula, String pNombreAutorizado) { return 0; }
+        public long anotarConsumo(String pCedula, String pNombreCliente, String pConcepto, long pValor) { return 0; }
+        public long anotarPago(String pCedula, long pIdFactura) { return 0; }
+        public long anotarAumentoFondos(String pCedula, long pValor) { return 0; }
+        public long anotarEliminacion(String pCedula) { return 0; }
+        public void esperarDurable(long pSecuencia) { }
+        public void revisarEscritura() { }
+    };
+
+    /**
+     * Revisa que la bitácora todavía pueda anotar modificaciones.
+     * El club la llama antes de modificar su estado, para no aplicar cambios que no se podrán guardar.
+     * @throws IllegalStateException Si la bitácora está cerrada o tuvo un error de escritura.
+     */
+    void revisarEscritura();
+
+    /**
+     * Anota la afiliación de un socio.
+     * @param pCedula Cédula del socio.
+     * @param pNombre Nombre del socio.
+     * @param pTipo Tipo de subscripción del socio.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarAfiliacion(String pCedula, String pNombre, Tipo pTipo);
+
+    /**
+     * Anota que un socio agregó una persona autorizada.
+     * @param pCedula Cédula del socio.
+     * @param pNombreAutorizado Nombre de la persona autorizada.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarAutorizadoAgregado(String pCedula, String pNombreAutorizado);
+
+    /**
+     * Anota que un socio eliminó una persona autorizada.
+     * @param pCedula Cédula del socio.
+     * @param pNombreAutorizado Nombre de la persona autorizada.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarAutorizadoEliminado(String pCedula, String pNombreAutorizado);
+
+    /**
+     * Anota un consumo registrado a un socio.
+     * @param pCedula Cédula del socio.
+     * @param pNombreCliente Nombre de quien hizo el consumo.
+     * @param pConcepto Concepto del consumo.
+     * @param pValor Valor del consumo en centavos.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarConsumo(String pCedula, String pNombreCliente, String pConcepto, long pValor);
+
+    /**
+     * Anota el pago de una factura de un socio.
+     * @param pCedula Cédula del socio.
+     * @param pIdFactura Identificador de la factura pagada.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarPago(String pCedula, long pIdFactura);
+
+    /**
+     * Anota un aumento de fondos de un socio.
+     * @param pCedula Cédula del socio.
+     * @param pValor Valor aumentado en centavos.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarAumentoFondos(String pCedula, long pValor);
+
+    /**
+     * Anota la eliminación de un socio.
+     * @param pCedula Cédula del socio.
+     * @return El número de secuencia de la anotación.
+     */
+    long anotarEliminacion(String pCedula);
+
+    /**
+     * Espera hasta que la anotación con la secuencia dada esté guardada de forma durable.
+     * @param pSecuencia Número de secuencia retornado por una anotación.
+     */
+    void esperarDurable(long pSecuencia);
+}
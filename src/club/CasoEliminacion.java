@@ -0,0 +1,60 @@
+package club;
+
+/**
+ * Caso que resulta de revisar si un socio se puede eliminar del club.
+ * Los casos del 1 al 4 son los motivos por los que un socio no se puede eliminar; el caso 5
+ * indica que el club estaba ocupado y no revisó al socio, así que se puede reintentar.
+ */
+public enum CasoEliminacion {
+
+    /**
+     * El socio cumple todas las condiciones para ser eliminado.
+     */
+    ELIMINABLE(0),
+
+    /**
+     * CASO 1: No existe un socio con la cédula.
+     */
+    SOCIO_NO_EXISTE(1),
+
+    /**
+     * CASO 2: El socio es de tipo VIP.
+     */
+    SOCIO_VIP(2),
+
+    /**
+     * CASO 3: El socio tiene facturas pendientes de pago.
+     */
+    FACTURAS_PENDIENTES(3),
+
+    /**
+     * CASO 4: El socio tiene más de un autorizado.
+     */
+    MUCHOS_AUTORIZADOS(4),
+
+    /**
+     * CASO 5: El club tiene demasiadas operaciones por aplicar y no revisó al socio.
+     */
+    COLA_LLENA(5);
+
+    /**
+     * Número del caso; 0 si el socio se puede eliminar.
+     */
+    private final int numero;
+
+    /**
+     * Construye el caso con su número.
+     * @param pNumero Número del caso.
+     */
+    private CasoEliminacion(int pNumero) {
+        numero = pNumero;
+    }
+
+    /**
+     * Retorna el número del caso.
+     * @return El número del caso, 0 si el socio se puede eliminar.
+     */
+    public int darNumero() {
+        return numero;
+    }
+}
@@ -0,0 +1,25 @@
+package club;
+
+/**
+ * Lugar donde se guardan los fondos de un socio, en centavos.
+ * Los fondos pueden vivir en el propio objeto del socio o en un almacenamiento externo,
+ * como un archivo mapeado en memoria. Solo se escriben con el candado del socio, porque cada cambio
+ * debe quedar en la bitácora en el mismo orden en que se validó; se pueden leer desde cualquier hilo
+ * sin el candado y siempre se ve el último valor escrito.
+ */
+public interface CeldaFondos {
+
+    /**
+     * Retorna los fondos guardados en la celda.
+     * @return Los fondos en centavos.
+     */
+    long leer();
+
+    /**
+     * Reemplaza los fondos de la celda.
+     * pre: El hilo actual tiene el candado del socio dueño de la celda.
+     * post: Los fondos son pFondos.
+     * @param pFondos Fondos nuevos en centavos.
+     */
+    void escribir(long pFondos);
+}
@@ -0,0 +1,40 @@
+package club;
+
+/**
+ * Celda de fondos que guarda el valor en un atributo del propio objeto.
+ */
+public class CeldaFondosMemoria implements CeldaFondos {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Fondos en centavos. Es volatile para poder leerlos sin el candado del socio.
+     */
+    private volatile long fondos;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea la celda con los fondos dados.
+     * @param pFondos Fondos iniciales en centavos.
+     */
+    public CeldaFondosMemoria(long pFondos) {
+        fondos = pFondos;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    public long leer() {
+        return fondos;
+    }
+
+    public void escribir(long pFondos) {
+        fondos = pFondos;
+    }
+}
@@ -1,11 +1,25 @@
 package club;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import club.Socio.Tipo;
 import club.Excepciones.*;
 
 /**
  * Clase que modela un club social.
+ * Es segura para ser usada desde varios puntos de venta a la vez: las operaciones sobre
+ * socios distintos se ejecutan en paralelo y cada socio serializa sus propias operaciones.
  * @author Tu Nombre
  */
 public class Club {
@@ -19,14 +33,53 @@ public class Club {
      */
     public final static int MAXIMO_VIP = 3;
 
+    /**
+     * Cantidad máxima de bytes UTF-8 de un texto del club: cédula, nombre, autorizado, cliente o concepto.
+     * Es la longitud que cabe en un registro de la bitácora y en la instantánea.
+     */
+    public final static int MAXIMO_BYTES_TEXTO = 65535;
+
     // -----------------------------------------------------------------
     // Atributos
     // -----------------------------------------------------------------
 
     /**
-     * Lista de socios del club.
+     * Socios del club en orden de afiliación. Es un conjunto enlazado para que eliminar un socio
+     * no tenga que recorrer a los demás. Todo acceso se hace sincronizado sobre él mismo.
+     */
+    private LinkedHashSet<Socio> socios;
+
+    /**
+     * Índice de los socios del club por número de cédula.
+     * Se mantiene sincronizado con el conjunto de socios.
+     */
+    private ConcurrentHashMap<String, Socio> indiceSocios;
+
+    /**
+     * Cantidad de socios afiliados por cada tipo de subscripción.
+     * Se actualiza cada vez que un socio se afilia al club.
+     */
+    private EnumMap<Tipo, AtomicInteger> conteoPorTipo;
+
+    /**
+     * Bitácora donde se anotan las modificaciones exitosas del club.
+     */
+    private volatile Bitacora bitacora;
+
+    /**
+     * Almacenamiento donde viven los registros de los socios.
+     */
+    private final AlmacenSocios almacen;
+
+    /**
+     * Formato en que los socios guardan sus facturas pendientes.
+     */
+    private final FormatoFacturas formatoFacturas;
+
+    /**
+     * Cifras de todo el club que se actualizan con cada modificación.
      */
-    private ArrayList<Socio> socios;
+    private final AgregadosClub agregados;
 
     // -----------------------------------------------------------------
     // Constructor
@@ -34,22 +87,74 @@ public class Club {
 
     /**
      * Constructor de la clase.
-     * post: Se inicializó la lista de socios.
+     * post: Se inicializó la lista de socios y su índice por cédula.
+     * El club no tiene bitácora y guarda los socios en memoria.
      */
     public Club() {
-        socios = new ArrayList<Socio>();
+        this(AlmacenSocios.MEMORIA);
+    }
+
+    /**
+     * Construye un club que guarda los fondos de sus socios en el almacenamiento dado.
+     * post: Se inicializó la lista de socios y su índice por cédula.
+     * El club no tiene bitácora.
+     * @param pAlmacen Almacenamiento de los fondos de los socios. pAlmacen != null.
+     */
+    public Club(AlmacenSocios pAlmacen) {
+        this(pAlmacen, FormatoFacturas.OBJETOS);
+    }
+
+    /**
+     * Construye un club que guarda los fondos de sus socios en el almacenamiento dado
+     * y las facturas de cada socio en el formato dado.
+     * post: Se inicializó la lista de socios y su índice por cédula.
+     * El club no tiene bitácora.
+     * @param pAlmacen Almacenamiento de los fondos de los socios. pAlmacen != null.
+     * @param pFormatoFacturas Formato de las facturas de los socios. pFormatoFacturas != null.
+     */
+    public Club(AlmacenSocios pAlmacen, FormatoFacturas pFormatoFacturas) {
+        almacen = pAlmacen;
+        formatoFacturas = pFormatoFacturas;
+        socios = new LinkedHashSet<Socio>();
+        indiceSocios = new ConcurrentHashMap<String, Socio>();
+        conteoPorTipo = new EnumMap<Tipo, AtomicInteger>(Tipo.class);
+        for(Tipo tipo : Tipo.values()) {
+            conteoPorTipo.put(tipo, new AtomicInteger());
+        }
+        bitacora = Bitacora.VACIA;
+        agregados = new AgregadosClub();
     }
 
     // -----------------------------------------------------------------
     // Métodos
     // -----------------------------------------------------------------
 
+    /**
+     * Asigna la bitácora donde se anotarán las modificaciones del club.
+     * Se asigna después de reconstruir el club, para que la reconstrucción no se vuelva a anotar.
+     * post: Las modificaciones siguientes se anotan en la bitácora dada.
+     * @param pBitacora La bitácora. pBitacora != null.
+     */
+    public void asignarBitacora(Bitacora pBitacora) {
+        bitacora = pBitacora;
+    }
+
+    /**
+     * Retorna las cifras de todo el club que se mantienen al día con cada modificación.
+     * @return Las cifras del club.
+     */
+    public AgregadosClub darAgregados() {
+        return agregados;
+    }
+
     /**
      * Retorna los socios afiliados al club.
-     * @return Lista de socios.
+     * @return Copia de la lista de socios, en orden de afiliación.
      */
     public ArrayList<Socio> darSocios() {
-        return socios;
+        synchronized(socios) {
+            return new ArrayList<Socio>(socios);
+        }
     }
 
     /**
@@ -61,91 +166,258 @@ public class Club {
      * @param pTipo Es el tipo de subscripción del socio. pTipo != null.
      * @throws SocioYaExisteException Si ya existe un socio con esa cédula.
      * @throws LimiteVIPException Si se excede el límite de socios VIP.
+     * @throws DatoInvalidoException Si la cédula o el nombre son demasiado largos.
      */
     public void afiliarSocio(String pCedula, String pNombre, Tipo pTipo)
-            throws SocioYaExisteException, LimiteVIPException {
+            throws SocioYaExisteException, LimiteVIPException, DatoInvalidoException {
 
-        // Revisar que no haya ya un socio con la misma cédula
-        Socio s = buscarSocio(pCedula);
+        ArrayList<String> autorizados = new ArrayList<String>();
+        String error = revisarAfiliacion(pCedula, pNombre, autorizados);
+        if(error != null) {
+            throw new DatoInvalidoException(error);
+        }
+        bitacora.revisarEscritura();
+
+        long[] secuencia = new long[1];
+        Resultado resultado = afiliar(pCedula, pNombre, pTipo, autorizados, secuencia);
 
-        if(s != null) {
+        if(resultado == Resultado.SOCIO_YA_EXISTE) {
             throw new SocioYaExisteException(
-                    "Ya existe un socio con la cédula: " + pCedula
+                    () -> "Ya existe un socio con la cédula: " + pCedula
+            );
+        }
+        if(resultado == Resultado.LIMITE_VIP) {
+            throw new LimiteVIPException(
+                    () -> "El club no acepta más socios VIP. Límite máximo: " + MAXIMO_VIP
             );
         }
+        bitacora.esperarDurable(secuencia[0]);
+    }
+
+    /**
+     * Afilia un lote de socios junto con sus personas autorizadas, por ejemplo al incorporar
+     * los socios de un club asociado. Cada afiliación se aplica completa o se rechaza completa,
+     * y los rechazos no interrumpen el lote.
+     * post: Se afilió cada socio con resultado EXITO, con sus autorizados.
+     * @param pAfiliaciones Afiliaciones a realizar. pAfiliaciones != null.
+     * @return Lista con el resultado de cada afiliación, en el mismo orden de pAfiliaciones.
+     */
+    public ArrayList<Resultado> afiliarSocios(List<Afiliacion> pAfiliaciones) {
+        ArrayList<Resultado> resultados = new ArrayList<Resultado>(pAfiliaciones.size());
+        long[] secuencia = new long[1];
+        bitacora.revisarEscritura();
+
+        for(Afiliacion afiliacion : pAfiliaciones) {
+            if(revisarAfiliacion(afiliacion.darCedula(), afiliacion.darNombre(), afiliacion.darAutorizados()) != null) {
+                resultados.add(Resultado.DATO_INVALIDO);
+                continue;
+            }
+            resultados.add(afiliar(afiliacion.darCedula(), afiliacion.darNombre(), afiliacion.darTipo(),
+                    afiliacion.darAutorizados(), secuencia));
+        }
+        bitacora.esperarDurable(secuencia[0]);
+
+        return resultados;
+    }
+
+    /**
+     * Afilia un socio con sus personas autorizadas y anota la afiliación en la bitácora,
+     * sin esperar a que la anotación sea durable.
+     * post: Si el resultado es EXITO, el socio quedó en el almacenamiento, en la lista y en el índice.
+     * @param pCedula Cédula del socio a afiliar. pCedula != null && pCedula != "".
+     * @param pNombre Nombre del socio a afiliar. pNombre != null && pNombre != "".
+     * @param pTipo Tipo de subscripción del socio. pTipo != null.
+     * @param pAutorizados Nombres de las personas autorizadas por el socio. pAutorizados != null.
+     * @param pSecuencia Arreglo de una posición donde se deja la secuencia de la última anotación, si se anotó algo.
+     * @return EXITO, SOCIO_YA_EXISTE, LIMITE_VIP, AUTORIZADO_INVALIDO o AUTORIZADO_YA_EXISTE.
+     */
+    private Resultado afiliar(String pCedula, String pNombre, Tipo pTipo,
+                              ArrayList<String> pAutorizados, long[] pSecuencia) {
+
+        // Revisar que los autorizados sean válidos antes de tocar el club
+        HashSet<String> vistos = new HashSet<String>();
+        for(String autorizado : pAutorizados) {
+            if(autorizado.equals(pNombre)) {
+                return Resultado.AUTORIZADO_INVALIDO;
+            }
+            if(!vistos.add(autorizado)) {
+                return Resultado.AUTORIZADO_YA_EXISTE;
+            }
+        }
+
+        // Revisar que no haya ya un socio con la misma cédula
+        if(buscarSocio(pCedula) != null) {
+            return Resultado.SOCIO_YA_EXISTE;
+        }
 
         // Revisar que no se haya alcanzado el límite de subscripciones VIP
-        if(pTipo == Tipo.VIP && contarSociosVIP() >= MAXIMO_VIP) {
-            throw new LimiteVIPException(
-                    "El club no acepta más socios VIP. Límite máximo: " + MAXIMO_VIP
+        if(!reservarCupo(pTipo)) {
+            return Resultado.LIMITE_VIP;
+        }
+
+        // Se crea y agrega el nuevo socio al club. Si otro punto de venta afilió
+        // la misma cédula mientras tanto, se devuelven el cupo y el registro reservados
+        CeldaFondos celda;
+        try {
+            celda = almacen.reservar(Socio.darFondosIniciales(pTipo));
+        } catch(RuntimeException e) {
+            liberarCupo(pTipo);
+            throw e;
+        }
+        Socio nuevoSocio = new Socio(pCedula, pNombre, pTipo, celda, pAutorizados, new ArrayList<Factura>(),
+                Socio.PRIMER_ID_FACTURA, formatoFacturas);
+        synchronized(nuevoSocio) {
+            if(indiceSocios.putIfAbsent(pCedula, nuevoSocio) != null) {
+                liberarCupo(pTipo);
+                almacen.liberar(celda);
+                return Resultado.SOCIO_YA_EXISTE;
+            }
+            synchronized(socios) {
+                socios.add(nuevoSocio);
+            }
+            agregados.registrarFondos(pTipo, nuevoSocio.darFondosCentavos());
+            pSecuencia[0] = bitacora.anotarAfiliacion(pCedula, pNombre, pTipo);
+            for(String autorizado : pAutorizados) {
+                pSecuencia[0] = bitacora.anotarAutorizadoAgregado(pCedula, autorizado);
+            }
+        }
+        return Resultado.EXITO;
+    }
+
+    /**
+     * Prepara el club para recibir la cantidad de socios dada, para que el almacenamiento
+     * no tenga que crecer durante una carga masiva.
+     * post: El almacenamiento tiene espacio para pSocios socios.
+     * @param pSocios Cantidad total de socios que se espera tener. pSocios >= 0.
+     */
+    public void asegurarCapacidad(int pSocios) {
+        almacen.asegurarCapacidad(pSocios);
+    }
+
+    /**
+     * Restaura en el club un socio con un estado guardado, por ejemplo al recuperarlo de una instantánea.
+     * No se verifica el límite de socios VIP ni se anota en la bitácora, porque el socio
+     * ya había sido afiliado cuando se guardó.
+     * post: El socio quedó en el almacenamiento, en la lista, en el índice y en el conteo de su tipo.
+     * @param pCedula Cédula del socio. pCedula != null && pCedula != "".
+     * @param pNombre Nombre del socio. pNombre != null && pNombre != "".
+     * @param pTipo Tipo de subscripción del socio. pTipo != null.
+     * @param pFondos Fondos disponibles del socio en centavos.
+     * @param pAutorizados Nombres de las personas autorizadas. pAutorizados != null.
+     * @param pFacturas Facturas pendientes, en el orden en que se registraron. pFacturas != null.
+     * @param pSiguienteIdFactura Identificador que recibirá la siguiente factura del socio.
+     * @throws SocioYaExisteException Si ya existe un socio con esa cédula.
+     */
+    public void restaurarSocio(String pCedula, String pNombre, Tipo pTipo, long pFondos,
+                               ArrayList<String> pAutorizados, ArrayList<Factura> pFacturas,
+                               long pSiguienteIdFactura)
+            throws SocioYaExisteException {
+
+        CeldaFondos celda = almacen.reservar(pFondos);
+        Socio socio = new Socio(pCedula, pNombre, pTipo, celda, pAutorizados, pFacturas, pSiguienteIdFactura,
+                formatoFacturas);
+        if(indiceSocios.putIfAbsent(pCedula, socio) != null) {
+            almacen.liberar(celda);
+            throw new SocioYaExisteException(
+                    () -> "Ya existe un socio con la cédula: " + pCedula
             );
         }
+        conteoPorTipo.get(pTipo).incrementAndGet();
+        synchronized(socios) {
+            socios.add(socio);
+        }
+        agregados.registrarFondos(pTipo, pFondos);
+        for(Factura factura : pFacturas) {
+            agregados.registrarConsumo(factura.darConcepto(), factura.darValorCentavos());
+        }
+    }
+
+    /**
+     * Reserva un cupo para un nuevo socio del tipo dado.
+     * La verificación del límite VIP y el incremento del conteo se hacen en una sola
+     * operación atómica, de modo que dos afiliaciones simultáneas no pueden superar MAXIMO_VIP.
+     * post: Si hay cupo, el conteo del tipo aumentó en uno.
+     * @param pTipo Tipo de subscripción del socio que entra. pTipo != null.
+     * @return True si se reservó el cupo, false si se alcanzó el límite de socios VIP.
+     */
+    private boolean reservarCupo(Tipo pTipo) {
+        AtomicInteger conteo = conteoPorTipo.get(pTipo);
+
+        if(pTipo != Tipo.VIP) {
+            conteo.incrementAndGet();
+            return true;
+        }
+
+        int actual = conteo.get();
+        while(actual < MAXIMO_VIP) {
+            if(conteo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+            actual = conteo.get();
+        }
+        return false;
+    }
 
-        // Se crea y agrega el nuevo socio al club
-        Socio nuevoSocio = new Socio(pCedula, pNombre, pTipo);
-        socios.add(nuevoSocio);
+    /**
+     * Libera el cupo reservado para un socio del tipo dado.
+     * post: El conteo del tipo disminuyó en uno.
+     * @param pTipo Tipo de subscripción del socio. pTipo != null.
+     */
+    private void liberarCupo(Tipo pTipo) {
+        conteoPorTipo.get(pTipo).decrementAndGet();
     }
 
     /**
      * Retorna el socio con la cédula dada.
-     * pre: La lista de socios está inicializada.
+     * pre: El índice de socios está inicializado.
      * @param pCedulaSocio Cédula del socio buscado. pCedulaSocio != null && pCedulaSocio != "".
      * @return El socio buscado, null si el socio buscado no existe.
      */
     public Socio buscarSocio(String pCedulaSocio) {
-        Socio elSocio = null;
-        boolean encontre = false;
-        int numSocios = socios.size();
-
-        for(int i = 0; i < numSocios && !encontre; i++) {
-            Socio s = socios.get(i);
-            if(s.darCedula().equals(pCedulaSocio)) {
-                elSocio = s;
-                encontre = true;
-            }
-        }
-
-        return elSocio;
+        return indiceSocios.get(pCedulaSocio);
     }
 
     /**
      * Retorna la cantidad de socios VIP que tiene el club.
-     * pre: La lista de socios está inicializada.
+     * pre: Los conteos por tipo están inicializados.
      * @return Número de socios VIP.
      */
     public int contarSociosVIP() {
-        int conteo = 0;
-        for(Socio socio : socios) {
-            if(socio.darTipo() == Tipo.VIP) {
-                conteo++;
-            }
-        }
-        return conteo;
+        return contarSocios(Tipo.VIP);
+    }
+
+    /**
+     * Retorna la cantidad de socios del tipo dado que tiene el club.
+     * pre: Los conteos por tipo están inicializados.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return Número de socios del tipo dado.
+     */
+    public int contarSocios(Tipo pTipo) {
+        return conteoPorTipo.get(pTipo).get();
     }
 
     /**
-     * Retorna la lista de autorizados del socio con la cédula dada.
+     * Retorna los autorizados del socio con la cédula dada, empezando por el propio socio.
+     * La colección es una vista de solo lectura que refleja los cambios posteriores; para
+     * recorrerla mientras otros puntos de venta pueden modificar los autorizados se debe tener
+     * el candado del socio.
      * pre: La lista de socios está inicializada.
      * @param pCedulaSocio La cédula del socio.
-     * @return La lista de autorizados del socio.
+     * @return La colección con el nombre del socio y los de sus autorizados.
      * @throws SocioNoExisteException Si no existe el socio.
      */
-    public ArrayList<String> darAutorizadosSocio(String pCedulaSocio)
+    public Collection<String> darAutorizadosSocio(String pCedulaSocio)
             throws SocioNoExisteException {
 
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        ArrayList<String> autorizados = new ArrayList<String>();
-        autorizados.add(s.darNombre());
-        autorizados.addAll(s.darAutorizados());
-
-        return autorizados;
+        return new VistaAutorizados(s.darNombre(), s.darVistaAutorizados());
     }
 
     /**
@@ -158,20 +430,36 @@ public class Club {
      * @throws AutorizadoInvalidoException Si intenta agregar al mismo socio.
      * @throws FondosInsuficientesException Si no tiene fondos.
      * @throws AutorizadoYaExisteException Si el autorizado ya existe.
+     * @throws DatoInvalidoException Si el nombre del autorizado es demasiado largo.
      */
     public void agregarAutorizadoSocio(String pCedulaSocio, String pNombreAutorizado)
             throws SocioNoExisteException, AutorizadoInvalidoException,
-            FondosInsuficientesException, AutorizadoYaExisteException {
+            FondosInsuficientesException, AutorizadoYaExisteException, DatoInvalidoException {
 
+        String error = revisarTexto(pNombreAutorizado, "El nombre del autorizado");
+        if(error != null) {
+            throw new DatoInvalidoException(error);
+        }
+        bitacora.revisarEscritura();
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        s.agregarAutorizado(pNombreAutorizado);
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            s.agregarAutorizado(pNombreAutorizado);
+            secuencia = bitacora.anotarAutorizadoAgregado(pCedulaSocio, pNombreAutorizado);
+        }
+        bitacora.esperarDurable(secuencia);
     }
 
     /**
@@ -180,19 +468,35 @@ public class Club {
      * @param pNombreAutorizado El nombre del autorizado a eliminar.
      * @throws SocioNoExisteException Si no existe el socio.
      * @throws AutorizadoConFacturasException Si el autorizado tiene facturas.
+     * @throws DatoInvalidoException Si el nombre del autorizado es demasiado largo.
      */
     public void eliminarAutorizadoSocio(String pCedulaSocio, String pNombreAutorizado)
-            throws SocioNoExisteException, AutorizadoConFacturasException {
+            throws SocioNoExisteException, AutorizadoConFacturasException, DatoInvalidoException {
 
+        String error = revisarTexto(pNombreAutorizado, "El nombre del autorizado");
+        if(error != null) {
+            throw new DatoInvalidoException(error);
+        }
+        bitacora.revisarEscritura();
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        s.eliminarAutorizado(pNombreAutorizado);
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            s.eliminarAutorizado(pNombreAutorizado);
+            secuencia = bitacora.anotarAutorizadoEliminado(pCedulaSocio, pNombreAutorizado);
+        }
+        bitacora.esperarDurable(secuencia);
     }
 
     /**
@@ -204,20 +508,168 @@ public class Club {
      * @param pValor El valor del consumo.
      * @throws SocioNoExisteException Si no existe el socio.
      * @throws FondosInsuficientesException Si no hay fondos suficientes.
+     * @throws DatoInvalidoException Si el valor es negativo o el nombre del cliente o el concepto son demasiado largos.
      */
     public void registrarConsumo(String pCedulaSocio, String pNombreCliente,
                                  String pConcepto, double pValor)
-            throws SocioNoExisteException, FondosInsuficientesException {
+            throws SocioNoExisteException, FondosInsuficientesException, DatoInvalidoException {
+
+        registrarConsumoCentavos(pCedulaSocio, pNombreCliente, pConcepto, Dinero.aCentavos(pValor));
+    }
+
+    /**
+     * Registra un consumo, con su valor en centavos, a un socio o a su autorizado.
+     * post: Se agregó una nueva factura al vector del socio.
+     * @param pCedulaSocio La cédula del socio.
+     * @param pNombreCliente El nombre la persona que realizó en consumo.
+     * @param pConcepto El concepto del consumo.
+     * @param pValor El valor del consumo en centavos.
+     * @return El identificador de la nueva factura.
+     * @throws SocioNoExisteException Si no existe el socio.
+     * @throws FondosInsuficientesException Si no hay fondos suficientes.
+     * @throws DatoInvalidoException Si el valor es negativo o el nombre del cliente o el concepto son demasiado largos.
+     */
+    public long registrarConsumoCentavos(String pCedulaSocio, String pNombreCliente,
+                                         String pConcepto, long pValor)
+            throws SocioNoExisteException, FondosInsuficientesException, DatoInvalidoException {
 
+        String error = revisarConsumo(pNombreCliente, pConcepto, pValor);
+        if(error != null) {
+            throw new DatoInvalidoException(error);
+        }
+        bitacora.revisarEscritura();
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        s.registrarConsumo(pNombreCliente, pConcepto, pValor);
+        long secuencia;
+        long id;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            id = s.registrarConsumoCentavos(pNombreCliente, pConcepto, pValor);
+            agregados.registrarConsumo(pConcepto, pValor);
+            secuencia = bitacora.anotarConsumo(pCedulaSocio, pNombreCliente, pConcepto, pValor);
+        }
+        bitacora.esperarDurable(secuencia);
+        return id;
+    }
+
+    /**
+     * Intenta registrar un consumo, con su valor en centavos, a un socio o a su autorizado.
+     * A diferencia de registrarConsumoCentavos, los rechazos se informan en el resultado y no
+     * con una excepción, lo que conviene a los puntos de venta donde los rechazos son frecuentes.
+     * post: Si el resultado es EXITO, se agregó una nueva factura al vector del socio.
+     * @param pCedulaSocio La cédula del socio.
+     * @param pNombreCliente El nombre la persona que realizó en consumo.
+     * @param pConcepto El concepto del consumo.
+     * @param pValor El valor del consumo en centavos.
+     * @return EXITO, SOCIO_NO_EXISTE, FONDOS_INSUFICIENTES o DATO_INVALIDO.
+     */
+    public Resultado intentarRegistrarConsumoCentavos(String pCedulaSocio, String pNombreCliente,
+                                                      String pConcepto, long pValor) {
+        if(revisarConsumo(pNombreCliente, pConcepto, pValor) != null) {
+            return Resultado.DATO_INVALIDO;
+        }
+        bitacora.revisarEscritura();
+        Socio s = buscarSocio(pCedulaSocio);
+
+        if(s == null) {
+            return Resultado.SOCIO_NO_EXISTE;
+        }
+
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                return Resultado.SOCIO_NO_EXISTE;
+            }
+            if(pValor > s.darFondosCentavos()) {
+                return Resultado.FONDOS_INSUFICIENTES;
+            }
+            s.agregarFactura(pNombreCliente, pConcepto, pValor);
+            agregados.registrarConsumo(pConcepto, pValor);
+            secuencia = bitacora.anotarConsumo(pCedulaSocio, pNombreCliente, pConcepto, pValor);
+        }
+        bitacora.esperarDurable(secuencia);
+        return Resultado.EXITO;
+    }
+
+    /**
+     * Registra un lote de consumos, por ejemplo los que un punto de venta acumuló durante un turno.
+     * Los consumos se agrupan por socio: cada socio se busca una sola vez y sus fondos se leen
+     * una sola vez, con su candado, para todos sus consumos del lote.
+     * Los rechazos no interrumpen el lote; se informan en la posición del consumo rechazado.
+     * post: Se agregó una factura por cada consumo con resultado EXITO.
+     * @param pConsumos Consumos a registrar. pConsumos != null.
+     * @return Lista con el resultado de cada consumo, en el mismo orden de pConsumos.
+     */
+    public ArrayList<Resultado> registrarConsumos(List<Consumo> pConsumos) {
+        Resultado[] resultados = new Resultado[pConsumos.size()];
+        bitacora.revisarEscritura();
+
+        // Agrupar las posiciones de los consumos por cédula, conservando el orden de llegada
+        LinkedHashMap<String, ArrayList<Integer>> porSocio = new LinkedHashMap<String, ArrayList<Integer>>();
+        for(int i = 0; i < pConsumos.size(); i++) {
+            String cedula = pConsumos.get(i).darCedulaSocio();
+            ArrayList<Integer> posiciones = porSocio.get(cedula);
+            if(posiciones == null) {
+                posiciones = new ArrayList<Integer>();
+                porSocio.put(cedula, posiciones);
+            }
+            posiciones.add(i);
+        }
+
+        long secuencia = 0;
+        for(ArrayList<Integer> posiciones : porSocio.values()) {
+            Socio s = buscarSocio(pConsumos.get(posiciones.get(0)).darCedulaSocio());
+
+            if(s == null) {
+                for(int i : posiciones) {
+                    resultados[i] = Resultado.SOCIO_NO_EXISTE;
+                }
+                continue;
+            }
+
+            synchronized(s) {
+                if(s.estaEliminado()) {
+                    for(int i : posiciones) {
+                        resultados[i] = Resultado.SOCIO_NO_EXISTE;
+                    }
+                    continue;
+                }
+                long fondos = s.darFondosCentavos();
+                for(int i : posiciones) {
+                    Consumo consumo = pConsumos.get(i);
+                    if(revisarConsumo(consumo.darNombreCliente(), consumo.darConcepto(),
+                            consumo.darValorCentavos()) != null) {
+                        resultados[i] = Resultado.DATO_INVALIDO;
+                    } else if(consumo.darValorCentavos() > fondos) {
+                        resultados[i] = Resultado.FONDOS_INSUFICIENTES;
+                    } else {
+                        s.agregarFactura(consumo.darNombreCliente(), consumo.darConcepto(),
+                                consumo.darValorCentavos());
+                        agregados.registrarConsumo(consumo.darConcepto(), consumo.darValorCentavos());
+                        secuencia = bitacora.anotarConsumo(consumo.darCedulaSocio(), consumo.darNombreCliente(),
+                                consumo.darConcepto(), consumo.darValorCentavos());
+                        resultados[i] = Resultado.EXITO;
+                    }
+                }
+            }
+        }
+        bitacora.esperarDurable(secuencia);
+
+        ArrayList<Resultado> lista = new ArrayList<Resultado>(resultados.length);
+        for(Resultado resultado : resultados) {
+            lista.add(resultado);
+        }
+        return lista;
     }
 
     /**
@@ -234,7 +686,7 @@ public class Club {
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
@@ -252,15 +704,66 @@ public class Club {
     public void pagarFacturaSocio(String pCedulaSocio, int pFacturaIndice)
             throws SocioNoExisteException, FondosInsuficientesException {
 
+        bitacora.revisarEscritura();
+        Socio s = buscarSocio(pCedulaSocio);
+
+        if(s == null) {
+            throw new SocioNoExisteException(
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
+            );
+        }
+
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            long pendienteAntes = s.darTotalPendienteCentavos();
+            long id = s.pagarFactura(pFacturaIndice);
+            agregados.registrarPago(s.darTipo(), pendienteAntes - s.darTotalPendienteCentavos());
+            secuencia = bitacora.anotarPago(pCedulaSocio, id);
+        }
+        bitacora.esperarDurable(secuencia);
+    }
+
+    /**
+     * Paga la factura con el identificador dado de un socio. A diferencia del pago por posición,
+     * el identificador no cambia cuando otro punto de venta paga otra factura del mismo socio.
+     * pre: El socio con la cédula dada existe.
+     * post: Se pagó la factura y las demás facturas del socio no se movieron.
+     * @param pCedulaSocio La cédula del socio.
+     * @param pIdFactura El identificador de la factura a pagar.
+     * @throws SocioNoExisteException Si no existe el socio.
+     * @throws FacturaNoExisteException Si el socio no tiene una factura pendiente con ese identificador.
+     * @throws FondosInsuficientesException Si no hay fondos suficientes.
+     */
+    public void pagarFacturaSocioPorId(String pCedulaSocio, long pIdFactura)
+            throws SocioNoExisteException, FacturaNoExisteException, FondosInsuficientesException {
+
+        bitacora.revisarEscritura();
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        s.pagarFactura(pFacturaIndice);
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            long pendienteAntes = s.darTotalPendienteCentavos();
+            s.pagarFacturaPorId(pIdFactura);
+            agregados.registrarPago(s.darTipo(), pendienteAntes - s.darTotalPendienteCentavos());
+            secuencia = bitacora.anotarPago(pCedulaSocio, pIdFactura);
+        }
+        bitacora.esperarDurable(secuencia);
     }
 
     /**
@@ -270,19 +773,258 @@ public class Club {
      * @param pValor Valor por el cual se desean aumentar los fondos.
      * @throws SocioNoExisteException Si no existe el socio.
      * @throws LimiteFondosException Si se excede el límite de fondos.
+     * @throws DatoInvalidoException Si el valor no es positivo.
      */
     public void aumentarFondosSocio(String pCedulaSocio, double pValor)
-            throws SocioNoExisteException, LimiteFondosException {
+            throws SocioNoExisteException, LimiteFondosException, DatoInvalidoException {
+
+        aumentarFondosSocioCentavos(pCedulaSocio, Dinero.aCentavos(pValor));
+    }
 
+    /**
+     * Aumenta los fondos de un socio en la cantidad de centavos dada.
+     * post: Los fondos del socio aumentaron en el valor especificado.
+     * @param pCedulaSocio La cédula del socio.
+     * @param pValor Valor en centavos por el cual se desean aumentar los fondos.
+     * @throws SocioNoExisteException Si no existe el socio.
+     * @throws LimiteFondosException Si se excede el límite de fondos.
+     * @throws DatoInvalidoException Si el valor no es positivo.
+     */
+    public void aumentarFondosSocioCentavos(String pCedulaSocio, long pValor)
+            throws SocioNoExisteException, LimiteFondosException, DatoInvalidoException {
+
+        if(pValor <= 0) {
+            throw new DatoInvalidoException("El valor a aumentar debe ser mayor que cero.");
+        }
+        bitacora.revisarEscritura();
         Socio s = buscarSocio(pCedulaSocio);
 
         if(s == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedulaSocio
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
             );
         }
 
-        s.aumentarFondos(pValor);
+        // El candado del socio ordena el aumento en la bitácora respecto de los pagos, que dependen
+        // de los fondos, y de la eliminación del socio, que libera su celda
+        long secuencia;
+        synchronized(s) {
+            if(s.estaEliminado()) {
+                throw new SocioNoExisteException(
+                        () -> "No existe un socio con la cédula: " + pCedulaSocio
+                );
+            }
+            s.aumentarFondosCentavos(pValor);
+            agregados.registrarFondos(s.darTipo(), pValor);
+            secuencia = bitacora.anotarAumentoFondos(pCedulaSocio, pValor);
+        }
+        bitacora.esperarDurable(secuencia);
+    }
+
+    /**
+     * Genera un reporte con las cifras de todo el club: total pendiente, fondos y utilización de
+     * fondos por tipo, los socios con más consumos pendientes y el total pendiente por concepto.
+     * Los socios se recorren en paralelo en todos los núcleos; cada socio se bloquea solo mientras
+     * se leen sus cifras, así que los puntos de venta siguen trabajando durante el reporte.
+     * @param pCantidadMayores Cantidad de mayores consumidores a incluir. pCantidadMayores >= 0.
+     * @return El reporte del club.
+     */
+    public ReporteClub generarReporte(int pCantidadMayores) {
+        ReporteClub.Acumulador cifras = darSocios().parallelStream().collect(
+                () -> new ReporteClub.Acumulador(pCantidadMayores),
+                ReporteClub.Acumulador::agregar,
+                ReporteClub.Acumulador::combinar);
+        return new ReporteClub(cifras);
+    }
+
+    /**
+     * Revisa si el socio con la cédula dada se puede eliminar, sin lanzar excepciones.
+     * @param pCedula Cédula del socio.
+     * @return La revisión con el caso que aplica al socio.
+     */
+    public EvaluacionEliminacion evaluarEliminacion(String pCedula) {
+        Socio socio = buscarSocio(pCedula);
+
+        if(socio == null) {
+            return new EvaluacionEliminacion(pCedula, CasoEliminacion.SOCIO_NO_EXISTE, 0, 0);
+        }
+        return evaluar(socio);
+    }
+
+    /**
+     * Revisa si cada socio del club se puede eliminar, por ejemplo para la depuración anual de socios.
+     * Los socios se revisan en paralelo y sin lanzar excepciones; cada socio se bloquea solo
+     * mientras se leen sus cifras.
+     * @return Flujo paralelo con la revisión de cada socio.
+     */
+    public Stream<EvaluacionEliminacion> evaluarEliminaciones() {
+        return darSocios().parallelStream()
+                .filter(socio -> !socio.estaEliminado())
+                .map(Club::evaluar);
+    }
+
+    /**
+     * Elimina del club el socio con la cédula dada.
+     * post: El socio ya no está en el conjunto de socios, en el índice, en el conteo de su tipo ni en el almacenamiento.
+     * @param pCedula Cédula del socio.
+     * @throws SocioNoExisteException Si no existe el socio.
+     * @throws SocioVIPNoEliminableException Si el socio es de tipo VIP.
+     * @throws FacturasPendientesException Si el socio tiene facturas pendientes.
+     * @throws MuchosAutorizadosException Si el socio tiene más de un autorizado.
+     */
+    public void eliminarSocio(String pCedula)
+            throws SocioNoExisteException, SocioVIPNoEliminableException,
+            FacturasPendientesException, MuchosAutorizadosException {
+
+        bitacora.revisarEscritura();
+        long[] secuencia = new long[1];
+        EvaluacionEliminacion evaluacion = retirar(pCedula, secuencia);
+
+        switch(evaluacion.darCaso()) {
+            case SOCIO_NO_EXISTE:
+                throw new SocioNoExisteException(evaluacion::darDescripcion);
+            case SOCIO_VIP:
+                throw new SocioVIPNoEliminableException(evaluacion::darDescripcion);
+            case FACTURAS_PENDIENTES:
+                throw new FacturasPendientesException(evaluacion::darDescripcion);
+            case MUCHOS_AUTORIZADOS:
+                throw new MuchosAutorizadosException(evaluacion::darDescripcion);
+            default:
+                break;
+        }
+
+        bitacora.esperarDurable(secuencia[0]);
+    }
+
+    /**
+     * Elimina un lote de socios, por ejemplo los que evaluarEliminaciones encontró eliminables.
+     * Cada socio se vuelve a revisar al eliminarlo, por si cambió después de la revisión, y los
+     * rechazos no interrumpen el lote.
+     * post: Se eliminó cada socio con caso ELIMINABLE.
+     * @param pCedulas Cédulas de los socios a eliminar. pCedulas != null.
+     * @return Lista con el caso de cada socio, en el mismo orden de pCedulas.
+     */
+    public ArrayList<CasoEliminacion> eliminarSocios(List<String> pCedulas) {
+        ArrayList<CasoEliminacion> casos = new ArrayList<CasoEliminacion>(pCedulas.size());
+        long[] secuencia = new long[1];
+        bitacora.revisarEscritura();
+
+        for(String cedula : pCedulas) {
+            casos.add(retirar(cedula, secuencia).darCaso());
+        }
+
+        bitacora.esperarDurable(secuencia[0]);
+
+        return casos;
+    }
+
+    /**
+     * Revisa si un socio se puede eliminar, con su candado.
+     * @param pSocio Socio a revisar. pSocio != null.
+     * @return La revisión con el caso que aplica al socio.
+     */
+    private static EvaluacionEliminacion evaluar(Socio pSocio) {
+        synchronized(pSocio) {
+            if(pSocio.estaEliminado()) {
+                return new EvaluacionEliminacion(pSocio.darCedula(), CasoEliminacion.SOCIO_NO_EXISTE, 0, 0);
+            }
+
+            return EvaluacionEliminacion.evaluar(pSocio.darCedula(), pSocio.darTipo(),
+                    pSocio.darNumeroFacturasPendientes(), pSocio.darNumeroAutorizados());
+        }
+    }
+
+    /**
+     * Revisa el socio con la cédula dada y, si se puede eliminar, anota la eliminación en la bitácora
+     * sin esperar a que sea durable y lo saca del índice, del conjunto de socios, del conteo de su tipo,
+     * de las cifras del club y del almacenamiento. El socio queda marcado como eliminado para que los
+     * puntos de venta que ya lo habían encontrado no lo modifiquen.
+     * @param pCedula Cédula del socio.
+     * @param pSecuencia Arreglo de una posición donde se deja la secuencia de la anotación, si se anotó.
+     * @return La revisión con el caso que aplicó al socio.
+     */
+    private EvaluacionEliminacion retirar(String pCedula, long[] pSecuencia) {
+        Socio socio = buscarSocio(pCedula);
+
+        if(socio == null) {
+            return new EvaluacionEliminacion(pCedula, CasoEliminacion.SOCIO_NO_EXISTE, 0, 0);
+        }
+
+        synchronized(socio) {
+            EvaluacionEliminacion evaluacion = evaluar(socio);
+            if(!evaluacion.sePuedeEliminar()) {
+                return evaluacion;
+            }
+
+            // La eliminación se anota antes de quitar el socio del índice: mientras siga en él nadie
+            // puede afiliar de nuevo su cédula, así que esa afiliación queda después en la bitácora
+            pSecuencia[0] = bitacora.anotarEliminacion(pCedula);
+            indiceSocios.remove(pCedula, socio);
+            socio.marcarEliminado();
+            synchronized(socios) {
+                socios.remove(socio);
+            }
+            liberarCupo(socio.darTipo());
+            agregados.registrarFondos(socio.darTipo(), -socio.darFondosCentavos());
+            almacen.liberar(socio.darCeldaFondos());
+            return evaluacion;
+        }
+    }
+
+    /**
+     * Revisa que los datos de una afiliación se puedan guardar: que los textos quepan en la bitácora
+     * y en la instantánea. No modifica el club, así que
+     * una carga masiva puede usarlo para explicar por qué se rechazaría una fila.
+     * @param pCedula Cédula del socio. pCedula != null.
+     * @param pNombre Nombre del socio. pNombre != null.
+     * @param pAutorizados Nombres de los autorizados. pAutorizados != null.
+     * @return La descripción del problema, o null si los datos son válidos.
+     */
+    public String revisarAfiliacion(String pCedula, String pNombre, List<String> pAutorizados) {
+        String error = revisarTexto(pCedula, "La cédula");
+        if(error == null) {
+            error = revisarTexto(pNombre, "El nombre");
+        }
+        for(int i = 0; error == null && i < pAutorizados.size(); i++) {
+            error = revisarTexto(pAutorizados.get(i), "El nombre del autorizado");
+        }
+        return error;
+    }
+
+    /**
+     * Revisa que los datos de un consumo sean válidos y se puedan guardar, antes de modificar el club.
+     * @param pNombreCliente Nombre de quien consume.
+     * @param pConcepto Concepto del consumo.
+     * @param pValor Valor del consumo en centavos.
+     * @return La descripción del problema, o null si los datos son válidos.
+     */
+    private static String revisarConsumo(String pNombreCliente, String pConcepto, long pValor) {
+        if(pValor < 0) {
+            return "El valor del consumo no puede ser negativo.";
+        }
+        String error = revisarTexto(pNombreCliente, "El nombre del cliente");
+        return error != null ? error : revisarTexto(pConcepto, "El concepto");
+    }
+
+    /**
+     * Revisa que un texto no supere MAXIMO_BYTES_TEXTO bytes, tanto en UTF-8 (bitácora) como en el
+     * UTF-8 modificado de DataOutputStream.writeUTF (instantánea). El segundo nunca es más corto,
+     * así que basta con contar ese.
+     * @param pTexto Texto a revisar. pTexto != null.
+     * @param pDato Nombre del dato, para la descripción del problema.
+     * @return La descripción del problema, o null si el texto es válido.
+     */
+    private static String revisarTexto(String pTexto, String pDato) {
+        // Un carácter ocupa a lo sumo 3 bytes, así que los textos cortos no hace falta recorrerlos
+        if((long) pTexto.length() * 3 <= MAXIMO_BYTES_TEXTO) {
+            return null;
+        }
+        long bytes = 0;
+        for(int i = 0; i < pTexto.length(); i++) {
+            char c = pTexto.charAt(i);
+            bytes += c >= 1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return bytes <= MAXIMO_BYTES_TEXTO ? null : pDato + " supera el máximo de " + MAXIMO_BYTES_TEXTO + " bytes.";
     }
 
     // -----------------------------------------------------------------
@@ -297,7 +1039,19 @@ public class Club {
      * @throws SocioNoExisteException Si no existe un socio con esa cédula.
      */
     public double calcularTotalConsumos(String pCedula) throws SocioNoExisteException {
-        double totalConsumos = 0.0;
+        return Dinero.aUnidades(calcularTotalConsumosCentavos(pCedula));
+    }
+
+    /**
+     * Calcula el total de consumos de un socio, en centavos, dado su número de cédula.
+     * El total se lleva en punto fijo a medida que se registran y pagan facturas,
+     * por lo que la consulta no depende de cuántas facturas tenga el socio.
+     * @param pCedula Número de cédula del socio.
+     * @return El valor total de consumos en centavos. Retorna 0 si no hay consumos.
+     * @throws SocioNoExisteException Si no existe un socio con esa cédula.
+     */
+    public long calcularTotalConsumosCentavos(String pCedula) throws SocioNoExisteException {
+        long totalConsumos = 0;
 
         // Buscar el socio
         Socio socio = buscarSocio(pCedula);
@@ -305,24 +1059,37 @@ public class Club {
         // Si no existe el socio, lanzar excepción
         if(socio == null) {
             throw new SocioNoExisteException(
-                    "No existe un socio con la cédula: " + pCedula
+                    () -> "No existe un socio con la cédula: " + pCedula
             );
         }
 
-        // Obtener las facturas del socio
-        ArrayList<Factura> facturas = socio.darFacturas();
+        // El socio lleva el total de sus facturas pendientes
+        totalConsumos = socio.darTotalPendienteCentavos();
 
-        // Si no hay facturas, retornar 0
-        if(facturas == null || facturas.isEmpty()) {
-            return 0.0;
-        }
+        return totalConsumos;
+    }
+
+    /**
+     * Calcula el total de los consumos pendientes que una persona hizo a nombre de un socio.
+     * Cada socio lleva el total pendiente de cada persona, por lo que la consulta no depende
+     * de cuántas facturas tenga el socio.
+     * @param pCedula Número de cédula del socio.
+     * @param pNombreCliente Nombre del socio o de uno de sus autorizados.
+     * @return El valor total de sus consumos pendientes en centavos. Retorna 0 si no hay consumos.
+     * @throws SocioNoExisteException Si no existe un socio con esa cédula.
+     */
+    public long calcularTotalConsumosClienteCentavos(String pCedula, String pNombreCliente)
+            throws SocioNoExisteException {
 
-        // Calcular el total sumando todas las facturas
-        for(Factura factura : facturas) {
-            totalConsumos += factura.darValor();
+        Socio socio = buscarSocio(pCedula);
+
+        if(socio == null) {
+            throw new SocioNoExisteException(
+                    () -> "No existe un socio con la cédula: " + pCedula
+            );
         }
 
-        return totalConsumos;
+        return socio.darTotalPendienteClienteCentavos(pNombreCliente);
     }
 
     /**
@@ -331,58 +1098,70 @@ public class Club {
      * @return String con el mensaje indicando si se puede eliminar o no, y la razón.
      */
     public String sePuedeEliminarSocio(String pCedula) {
-        String resultado = "";
-
-        try {
-            // Buscar el socio
-            Socio socio = buscarSocio(pCedula);
+        EvaluacionEliminacion evaluacion = evaluarEliminacion(pCedula);
 
-            // CASO 1: No existe un socio con la cédula
-            if(socio == null) {
-                throw new SocioNoExisteException(
-                        "No existe un socio con la cédula: " + pCedula
-                );
-            }
-
-            // CASO 2: El socio es de tipo VIP
-            if(socio.darTipo() == Tipo.VIP) {
-                throw new SocioVIPNoEliminableException(
-                        "No se pueden eliminar socios de tipo VIP."
-                );
-            }
+        if(evaluacion.sePuedeEliminar()) {
+            return "✓ El socio con cédula " + pCedula + " SÍ puede ser eliminado." +
+                    "\n  " + evaluacion.darDescripcion();
+        }
+        return "✗ CASO " + evaluacion.darCaso().darNumero() + ": " + evaluacion.darDescripcion();
+    }
 
-            // CASO 3: El socio tiene facturas pendientes de pago
-            ArrayList<Factura> facturas = socio.darFacturas();
-            if(facturas != null && !facturas.isEmpty()) {
-                throw new FacturasPendientesException(
-                        "No se puede eliminar un socio con facturas pendientes. " +
-                                "Facturas pendientes: " + facturas.size()
-                );
-            }
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
 
-            // CASO 4: El socio tiene más de un autorizado
-            ArrayList<String> autorizados = socio.darAutorizados();
-            if(autorizados != null && autorizados.size() > 1) {
-                throw new MuchosAutorizadosException(
-                        "No se puede eliminar un socio con más de un autorizado. " +
-                                "Autorizados: " + autorizados.size()
-                );
-            }
+    /**
+     * Vista de solo lectura de las personas que pueden consumir a nombre de un socio:
+     * el socio seguido de sus autorizados.
+     */
+    private static class VistaAutorizados extends AbstractCollection<String> {
+
+        /**
+         * Nombre del socio.
+         */
+        private final String nombre;
+
+        /**
+         * Vista de los autorizados del socio.
+         */
+        private final Set<String> autorizados;
+
+        /**
+         * Crea la vista de un socio.
+         * @param pNombre Nombre del socio.
+         * @param pAutorizados Vista de los autorizados del socio.
+         */
+        private VistaAutorizados(String pNombre, Set<String> pAutorizados) {
+            nombre = pNombre;
+            autorizados = pAutorizados;
+        }
 
-            // Si pasa todas las validaciones, se puede eliminar
-            resultado = "✓ El socio con cédula " + pCedula + " SÍ puede ser eliminado." +
-                    "\n  Cumple todas las condiciones para ser eliminado.";
+        public int size() {
+            return 1 + autorizados.size();
+        }
 
-        } catch(SocioNoExisteException e) {
-            resultado = "✗ CASO 1: " + e.getMessage();
-        } catch(SocioVIPNoEliminableException e) {
-            resultado = "✗ CASO 2: " + e.getMessage();
-        } catch(FacturasPendientesException e) {
-            resultado = "✗ CASO 3: " + e.getMessage();
-        } catch(MuchosAutorizadosException e) {
-            resultado = "✗ CASO 4: " + e.getMessage();
+        public boolean contains(Object pNombre) {
+            return nombre.equals(pNombre) || autorizados.contains(pNombre);
         }
 
-        return resultado;
+        public Iterator<String> iterator() {
+            Iterator<String> resto = autorizados.iterator();
+            return new Iterator<String>() {
+                private boolean dioNombre;
+
+                public boolean hasNext() {
+                    return !dioNombre || resto.hasNext();
+                }
+
+                public String next() {
+                    if(!dioNombre) {
+                        dioNombre = true;
+                        return nombre;
+                    }
+                    return resto.next();
+                }
+            };
+        }
     }
-}
\ No newline at end of file
+}
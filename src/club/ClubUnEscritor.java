@@ -0,0 +1,634 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import club.Socio.Tipo;
+import club.Excepciones.*;
+
+/**
+ * Club en el que todas las modificaciones las aplica un solo hilo escritor, en el orden en que llegan.
+ * Los puntos de venta dejan cada modificación en una cola acotada y esperan su resultado, así que
+ * los métodos conservan las mismas firmas y excepciones del club. Como nunca hay dos modificaciones
+ * a la vez, los candados de los socios no se disputan, y la latencia depende de la longitud de la
+ * cola y no de cuántos puntos de venta compiten por el mismo socio.
+ * Si la cola está llena, la modificación se rechaza de inmediato con ColaLlenaException, o con
+ * COLA_LLENA en los métodos que informan sus rechazos con un resultado, para que el punto de venta
+ * decida si reintenta.
+ * Después de cada modificación el escritor publica una copia inmutable de las cifras del socio
+ * afectado; las consultas de totales, autorizados y eliminación se responden con esas copias, sin
+ * candados. buscarSocio, darFacturasSocio y generarReporte son la excepción: necesitan el socio o sus
+ * facturas completas, que las copias no guardan, así que leen el estado vivo con el candado breve de
+ * cada socio, que a lo sumo espera a que el escritor termine una modificación.
+ * El escritor no espera a que cada anotación de la bitácora sea durable: lo hace cada punto de
+ * venta después de recibir su resultado, así que el escritor sigue aplicando modificaciones
+ * mientras se sincroniza el disco.
+ * Si una modificación lanza un Error, el punto de venta lo recibe y el escritor se detiene, porque el
+ * club pudo quedar a medio modificar; las modificaciones que seguían en la cola se rechazan.
+ */
+public class ClubUnEscritor extends Club {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Capacidad de la cola de modificaciones si no se indica otra.
+     */
+    public final static int CAPACIDAD_POR_DEFECTO = 64 * 1024;
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Modificaciones pendientes de aplicar, en orden de llegada.
+     */
+    private final ArrayBlockingQueue<Modificacion<?>> cola;
+
+    /**
+     * Hilo que aplica las modificaciones.
+     */
+    private final Thread escritor;
+
+    /**
+     * Última copia publicada de cada socio, por cédula.
+     */
+    private final ConcurrentHashMap<String, EstadoSocio> estados;
+
+    /**
+     * Bitácora real donde se anotan las modificaciones.
+     */
+    private volatile Bitacora destino;
+
+    /**
+     * Secuencia de la última anotación de la modificación que se está aplicando.
+     * Solo la usa el hilo escritor.
+     */
+    private long secuenciaModificacion;
+
+    /**
+     * Indica si el escritor debe seguir aplicando modificaciones.
+     */
+    private volatile boolean activo;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Construye un club de un solo escritor con los socios en memoria.
+     * post: El hilo escritor está listo para recibir modificaciones.
+     */
+    public ClubUnEscritor() {
+        this(AlmacenSocios.MEMORIA, FormatoFacturas.OBJETOS, CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Construye un club de un solo escritor.
+     * post: El hilo escritor está listo para recibir modificaciones.
+     * @param pAlmacen Almacenamiento de los fondos de los socios. pAlmacen != null.
+     * @param pFormatoFacturas Formato de las facturas de los socios. pFormatoFacturas != null.
+     * @param pCapacidad Cantidad de modificaciones que pueden esperar en la cola. pCapacidad > 0.
+     */
+    public ClubUnEscritor(AlmacenSocios pAlmacen, FormatoFacturas pFormatoFacturas, int pCapacidad) {
+        super(pAlmacen, pFormatoFacturas);
+        cola = new ArrayBlockingQueue<Modificacion<?>>(pCapacidad);
+        estados = new ConcurrentHashMap<String, EstadoSocio>();
+        destino = Bitacora.VACIA;
+        super.asignarBitacora(new BitacoraEscritor());
+
+        activo = true;
+        escritor = new Thread(this::aplicarModificaciones, "escritor-club");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    @Override
+    public void asignarBitacora(Bitacora pBitacora) {
+        destino = pBitacora;
+    }
+
+    /**
+     * Retorna la última copia publicada de las cifras de un socio, sin candados.
+     * Refleja todas las modificaciones del socio que ya retornaron.
+     * @param pCedulaSocio La cédula del socio.
+     * @return La copia de las cifras del socio, null si el socio no existe.
+     */
+    public EstadoSocio darEstadoSocio(String pCedulaSocio) {
+        return estados.get(pCedulaSocio);
+    }
+
+    /**
+     * Retorna la cantidad de modificaciones que esperan en la cola.
+     * @return El número de modificaciones pendientes.
+     */
+    public int darModificacionesPendientes() {
+        return cola.size();
+    }
+
+    /**
+     * Detiene el hilo escritor después de aplicar las modificaciones que ya están en la cola.
+     * post: El club ya no acepta modificaciones.
+     */
+    public void detener() {
+        if(Thread.currentThread() == escritor) {
+            activo = false;
+            return;
+        }
+        Modificacion<Object> fin = new Modificacion<Object>(() -> {
+            activo = false;
+            return null;
+        });
+        try {
+            cola.put(fin);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if(!activo && cola.remove(fin)) {
+            // El escritor ya se había detenido y no va a tomar la modificación
+            return;
+        }
+        fin.esperar();
+    }
+
+    @Override
+    public void afiliarSocio(String pCedula, String pNombre, Tipo pTipo)
+            throws SocioYaExisteException, LimiteVIPException, DatoInvalidoException {
+        aplicar(() -> {
+            super.afiliarSocio(pCedula, pNombre, pTipo);
+            publicar(pCedula, null);
+            return null;
+        });
+    }
+
+    @Override
+    public ArrayList<Resultado> afiliarSocios(List<Afiliacion> pAfiliaciones) {
+        try {
+            return aplicar(() -> {
+                ArrayList<Resultado> resultados = super.afiliarSocios(pAfiliaciones);
+                for(int i = 0; i < resultados.size(); i++) {
+                    if(resultados.get(i) == Resultado.EXITO) {
+                        publicar(pAfiliaciones.get(i).darCedula(), null);
+                    }
+                }
+                return resultados;
+            });
+        } catch(ColaLlenaException e) {
+            return new ArrayList<Resultado>(Collections.nCopies(pAfiliaciones.size(), Resultado.COLA_LLENA));
+        }
+    }
+
+    @Override
+    public void restaurarSocio(String pCedula, String pNombre, Tipo pTipo, long pFondos,
+                               ArrayList<String> pAutorizados, ArrayList<Factura> pFacturas,
+                               long pSiguienteIdFactura)
+            throws SocioYaExisteException, DatoInvalidoException {
+        aplicar(() -> {
+            super.restaurarSocio(pCedula, pNombre, pTipo, pFondos, pAutorizados, pFacturas, pSiguienteIdFactura);
+            publicar(pCedula, null);
+            return null;
+        });
+    }
+
+    @Override
+    public Collection<String> darAutorizadosSocio(String pCedulaSocio)
+            throws SocioNoExisteException {
+        return darEstadoExistente(pCedulaSocio).darPersonas();
+    }
+
+    @Override
+    public void agregarAutorizadoSocio(String pCedulaSocio, String pNombreAutorizado)
+            throws SocioNoExisteException, AutorizadoInvalidoException,
+            FondosInsuficientesException, AutorizadoYaExisteException, DatoInvalidoException {
+        aplicar(() -> {
+            super.agregarAutorizadoSocio(pCedulaSocio, pNombreAutorizado);
+            publicar(pCedulaSocio, null);
+            return null;
+        });
+    }
+
+    @Override
+    public void eliminarAutorizadoSocio(String pCedulaSocio, String pNombreAutorizado)
+            throws SocioNoExisteException, AutorizadoConFacturasException, DatoInvalidoException {
+        aplicar(() -> {
+            super.eliminarAutorizadoSocio(pCedulaSocio, pNombreAutorizado);
+            publicar(pCedulaSocio, null);
+            return null;
+        });
+    }
+
+    @Override
+    public long registrarConsumoCentavos(String pCedulaSocio, String pNombreCliente,
+                                         String pConcepto, long pValor)
+            throws SocioNoExisteException, FondosInsuficientesException, DatoInvalidoException {
+        return aplicar(() -> {
+            long id = super.registrarConsumoCentavos(pCedulaSocio, pNombreCliente, pConcepto, pValor);
+            publicarCifras(pCedulaSocio);
+            return id;
+        });
+    }
+
+    @Override
+    public Resultado intentarRegistrarConsumoCentavos(String pCedulaSocio, String pNombreCliente,
+                                                      String pConcepto, long pValor) {
+        try {
+            return aplicar(() -> {
+                Resultado resultado = super.intentarRegistrarConsumoCentavos(pCedulaSocio, pNombreCliente,
+                        pConcepto, pValor);
+                if(resultado == Resultado.EXITO) {
+                    publicarCifras(pCedulaSocio);
+                }
+                return resultado;
+            });
+        } catch(ColaLlenaException e) {
+            return Resultado.COLA_LLENA;
+        }
+    }
+
+    @Override
+    public ArrayList<Resultado> registrarConsumos(List<Consumo> pConsumos) {
+        try {
+            return aplicar(() -> {
+                ArrayList<Resultado> resultados = super.registrarConsumos(pConsumos);
+                HashSet<String> publicados = new HashSet<String>();
+                for(int i = 0; i < resultados.size(); i++) {
+                    String cedula = pConsumos.get(i).darCedulaSocio();
+                    if(resultados.get(i) == Resultado.EXITO && publicados.add(cedula)) {
+                        publicarCifras(cedula);
+                    }
+                }
+                return resultados;
+            });
+        } catch(ColaLlenaException e) {
+            return new ArrayList<Resultado>(Collections.nCopies(pConsumos.size(), Resultado.COLA_LLENA));
+        }
+    }
+
+    @Override
+    public void pagarFacturaSocio(String pCedulaSocio, int pFacturaIndice)
+            throws SocioNoExisteException, FondosInsuficientesException {
+        aplicar(() -> {
+            super.pagarFacturaSocio(pCedulaSocio, pFacturaIndice);
+            publicarCifras(pCedulaSocio);
+            return null;
+        });
+    }
+
+    @Override
+    public void pagarFacturaSocioPorId(String pCedulaSocio, long pIdFactura)
+            throws SocioNoExisteException, FacturaNoExisteException, FondosInsuficientesException {
+        aplicar(() -> {
+            super.pagarFacturaSocioPorId(pCedulaSocio, pIdFactura);
+            publicarCifras(pCedulaSocio);
+            return null;
+        });
+    }
+
+    @Override
+    public void aumentarFondosSocioCentavos(String pCedulaSocio, long pValor)
+            throws SocioNoExisteException, LimiteFondosException, DatoInvalidoException {
+        aplicar(() -> {
+            super.aumentarFondosSocioCentavos(pCedulaSocio, pValor);
+            publicarCifras(pCedulaSocio);
+            return null;
+        });
+    }
+
+    @Override
+    public void eliminarSocio(String pCedula)
+            throws SocioNoExisteException, SocioVIPNoEliminableException,
+            FacturasPendientesException, MuchosAutorizadosException {
+        aplicar(() -> {
+            super.eliminarSocio(pCedula);
+            estados.remove(pCedula);
+            return null;
+        });
+    }
+
+    @Override
+    public ArrayList<CasoEliminacion> eliminarSocios(List<String> pCedulas) {
+        try {
+            return aplicar(() -> {
+                ArrayList<CasoEliminacion> casos = super.eliminarSocios(pCedulas);
+                for(int i = 0; i < casos.size(); i++) {
+                    if(casos.get(i) == CasoEliminacion.ELIMINABLE) {
+                        estados.remove(pCedulas.get(i));
+                    }
+                }
+                return casos;
+            });
+        } catch(ColaLlenaException e) {
+            return new ArrayList<CasoEliminacion>(Collections.nCopies(pCedulas.size(), CasoEliminacion.COLA_LLENA));
+        }
+    }
+
+    @Override
+    public long calcularTotalConsumosCentavos(String pCedula) throws SocioNoExisteException {
+        return darEstadoExistente(pCedula).darTotalPendienteCentavos();
+    }
+
+    @Override
+    public EvaluacionEliminacion evaluarEliminacion(String pCedula) {
+        EstadoSocio estado = estados.get(pCedula);
+
+        if(estado == null) {
+            return new EvaluacionEliminacion(pCedula, CasoEliminacion.SOCIO_NO_EXISTE, 0, 0);
+        }
+        return evaluar(estado);
+    }
+
+    @Override
+    public Stream<EvaluacionEliminacion> evaluarEliminaciones() {
+        return estados.values().parallelStream().map(ClubUnEscritor::evaluar);
+    }
+
+    /**
+     * Revisa si un socio se puede eliminar según la última copia publicada de sus cifras.
+     * @param pEstado Copia de las cifras del socio. pEstado != null.
+     * @return La revisión con el caso que aplica al socio.
+     */
+    private static EvaluacionEliminacion evaluar(EstadoSocio pEstado) {
+        return EvaluacionEliminacion.evaluar(pEstado.darCedula(), pEstado.darTipo(),
+                pEstado.darNumeroFacturasPendientes(), pEstado.darAutorizados().size());
+    }
+
+    /**
+     * Retorna la última copia publicada de un socio que debe existir.
+     * @param pCedulaSocio La cédula del socio.
+     * @return La copia de las cifras del socio.
+     * @throws SocioNoExisteException Si no existe el socio.
+     */
+    private EstadoSocio darEstadoExistente(String pCedulaSocio) throws SocioNoExisteException {
+        EstadoSocio estado = estados.get(pCedulaSocio);
+
+        if(estado == null) {
+            throw new SocioNoExisteException(
+                    () -> "No existe un socio con la cédula: " + pCedulaSocio
+            );
+        }
+        return estado;
+    }
+
+    /**
+     * Publica una copia nueva de las cifras de un socio cuyos autorizados no cambiaron,
+     * reutilizando la lista de personas de la copia anterior.
+     * pre: El hilo actual es el escritor.
+     * @param pCedulaSocio La cédula del socio.
+     */
+    private void publicarCifras(String pCedulaSocio) {
+        EstadoSocio anterior = estados.get(pCedulaSocio);
+        publicar(pCedulaSocio, anterior != null ? anterior.darPersonas() : null);
+    }
+
+    /**
+     * Publica una copia nueva de las cifras de un socio.
+     * pre: El hilo actual es el escritor.
+     * @param pCedulaSocio La cédula del socio.
+     * @param pPersonas Lista inmutable con el nombre del socio y sus autorizados, o null para copiarlos del socio.
+     */
+    private void publicar(String pCedulaSocio, List<String> pPersonas) {
+        Socio socio = buscarSocio(pCedulaSocio);
+        if(socio != null) {
+            estados.put(pCedulaSocio, new EstadoSocio(socio, pPersonas));
+        }
+    }
+
+    /**
+     * Deja una modificación en la cola, espera a que el escritor la aplique y luego a que su
+     * anotación en la bitácora sea durable. Si quien llama es el propio escritor, por ejemplo
+     * porque un método del club llama a otro, la modificación se aplica de inmediato.
+     * @param pCambio Modificación a aplicar; lanza las mismas excepciones que el método del club.
+     * @return El resultado de la modificación.
+     * @throws ColaLlenaException Si la cola está llena o el escritor se detuvo.
+     */
+    private <T> T aplicar(Supplier<T> pCambio) {
+        if(Thread.currentThread() == escritor) {
+            return pCambio.get();
+        }
+
+        if(!activo) {
+            throw new ColaLlenaException("El club ya no acepta modificaciones.");
+        }
+        Modificacion<T> modificacion = new Modificacion<T>(pCambio);
+        if(!cola.offer(modificacion)) {
+            throw new ColaLlenaException(
+                    () -> "El club tiene " + cola.size() + " operaciones por aplicar; intente nuevamente."
+            );
+        }
+        // El escritor pudo detenerse entre la revisión de activo y offer. Si ya vació la cola por
+        // última vez nadie va a tomar la modificación; si no se puede quitar es porque la tomó
+        // y la va a terminar
+        if(!activo && cola.remove(modificacion)) {
+            throw new ColaLlenaException("El club ya no acepta modificaciones.");
+        }
+        modificacion.esperar();
+        destino.esperarDurable(modificacion.secuencia);
+        return modificacion.darResultado();
+    }
+
+    /**
+     * Ciclo del hilo escritor: toma las modificaciones de la cola en lotes y las aplica en orden.
+     * Si una modificación lanza un Error, después de entregárselo a su punto de venta el escritor
+     * se detiene con ese mismo Error.
+     */
+    private void aplicarModificaciones() {
+        ArrayList<Modificacion<?>> lote = new ArrayList<Modificacion<?>>();
+        try {
+            while(activo) {
+                try {
+                    lote.add(cola.take());
+                } catch(InterruptedException e) {
+                    continue;
+                }
+                cola.drainTo(lote);
+                for(Modificacion<?> modificacion : lote) {
+                    secuenciaModificacion = 0;
+                    modificacion.aplicar();
+                    modificacion.secuencia = secuenciaModificacion;
+                    modificacion.terminar();
+                    if(modificacion.error instanceof Error) {
+                        throw (Error) modificacion.error;
+                    }
+                }
+                lote.clear();
+            }
+        } finally {
+            // Las modificaciones que quedaron del lote o llegaron después de detener el escritor no se aplican
+            activo = false;
+            cola.drainTo(lote);
+            for(Modificacion<?> modificacion : lote) {
+                if(!modificacion.estaTerminada()) {
+                    modificacion.error = new ColaLlenaException("El club ya no acepta modificaciones.");
+                    modificacion.terminar();
+                }
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
+
+    /**
+     * Modificación que espera en la cola, con su resultado una vez aplicada.
+     */
+    private static class Modificacion<T> {
+
+        /**
+         * Cambio a aplicar sobre el club.
+         */
+        private final Supplier<T> cambio;
+
+        /**
+         * Señal de que la modificación ya se aplicó.
+         */
+        private final CountDownLatch aplicada;
+
+        /**
+         * Resultado del cambio, si terminó normalmente.
+         */
+        private T resultado;
+
+        /**
+         * Excepción o error que lanzó el cambio, null si terminó normalmente.
+         */
+        private Throwable error;
+
+        /**
+         * Secuencia de la última anotación que hizo el cambio en la bitácora, 0 si no anotó nada.
+         */
+        private long secuencia;
+
+        /**
+         * Crea la modificación.
+         * @param pCambio Cambio a aplicar.
+         */
+        private Modificacion(Supplier<T> pCambio) {
+            cambio = pCambio;
+            aplicada = new CountDownLatch(1);
+        }
+
+        /**
+         * Aplica el cambio y guarda su resultado o lo que haya lanzado, para que quien espera
+         * siempre reciba una respuesta.
+         */
+        private void aplicar() {
+            try {
+                resultado = cambio.get();
+            } catch(Throwable e) {
+                error = e;
+            }
+        }
+
+        /**
+         * Avisa a quien espera que la modificación se aplicó. Lo que escribió el escritor
+         * antes de avisar es visible para quien espera.
+         */
+        private void terminar() {
+            aplicada.countDown();
+        }
+
+        /**
+         * Indica si ya se avisó que la modificación terminó.
+         * @return True si terminó, false si sigue pendiente.
+         */
+        private boolean estaTerminada() {
+            return aplicada.getCount() == 0;
+        }
+
+        /**
+         * Espera a que el escritor aplique la modificación, aunque interrumpan el hilo.
+         */
+        private void esperar() {
+            boolean interrumpido = false;
+            while(true) {
+                try {
+                    aplicada.await();
+                    break;
+                } catch(InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if(interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Retorna el resultado de la modificación o lanza lo que lanzó el cambio.
+         * @return El resultado.
+         */
+        private T darResultado() {
+            if(error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if(error instanceof Error) {
+                throw (Error) error;
+            }
+            if(error != null) {
+                // Solo si el cambio lanzó una excepción verificada sin declararla
+                throw new IllegalStateException(error);
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Bitácora que el club usa desde el hilo escritor: anota en la bitácora real y guarda la
+     * secuencia de la modificación en curso, pero no espera a que sea durable; de eso se encarga
+     * el punto de venta que envió la modificación.
+     */
+    private class BitacoraEscritor implements Bitacora {
+
+        public long anotarAfiliacion(String pCedula, String pNombre, Tipo pTipo) {
+            return secuenciaModificacion = destino.anotarAfiliacion(pCedula, pNombre, pTipo);
+        }
+
+        public long anotarAutorizadoAgregado(String pCedula, String pNombreAutorizado) {
+            return secuenciaModificacion = destino.anotarAutorizadoAgregado(pCedula, pNombreAutorizado);
+        }
+
+        public long anotarAutorizadoEliminado(String pCedula, String pNombreAutorizado) {
+            return secuenciaModificacion = destino.anotarAutorizadoEliminado(pCedula, pNombreAutorizado);
+        }
+
+        public long anotarConsumo(String pCedula, String pNombreCliente, String pConcepto, long pValor) {
+            return secuenciaModificacion = destino.anotarConsumo(pCedula, pNombreCliente, pConcepto, pValor);
+        }
+
+        public long anotarPago(String pCedula, long pIdFactura) {
+            return secuenciaModificacion = destino.anotarPago(pCedula, pIdFactura);
+        }
+
+        public long anotarAumentoFondos(String pCedula, long pValor) {
+            return secuenciaModificacion = destino.anotarAumentoFondos(pCedula, pValor);
+        }
+
+        public long anotarEliminacion(String pCedula) {
+            return secuenciaModificacion = destino.anotarEliminacion(pCedula);
+        }
+
+        public void esperarDurable(long pSecuencia) {
+            if(Thread.currentThread() != escritor) {
+                destino.esperarDurable(pSecuencia);
+            }
+        }
+
+        public void revisarEscritura() {
+            destino.revisarEscritura();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package club;
+
+/**
+ * Clase que modela un consumo pendiente de registrar, por ejemplo uno que un punto de venta
+ * guardó mientras estaba desconectado.
+ */
+public class Consumo {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cédula del socio al que se carga el consumo.
+     */
+    private final String cedulaSocio;
+
+    /**
+     * Nombre de la persona que hizo el consumo.
+     */
+    private final String nombreCliente;
+
+    /**
+     * Concepto del consumo.
+     */
+    private final String concepto;
+
+    /**
+     * Valor del consumo en centavos.
+     */
+    private final long valor;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Construye un consumo con los datos dados.
+     * @param pCedulaSocio Cédula del socio. pCedulaSocio != null && pCedulaSocio != "".
+     * @param pNombreCliente Nombre de quien consumió. pNombreCliente != null && pNombreCliente != "".
+     * @param pConcepto Concepto del consumo. pConcepto != null && pConcepto != "".
+     * @param pValor Valor del consumo en centavos. pValor > 0.
+     */
+    public Consumo(String pCedulaSocio, String pNombreCliente, String pConcepto, long pValor) {
+        cedulaSocio = pCedulaSocio;
+        nombreCliente = pNombreCliente;
+        concepto = pConcepto;
+        valor = pValor;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna la cédula del socio al que se carga el consumo.
+     * @return La cédula del socio.
+     */
+    public String darCedulaSocio() {
+        return cedulaSocio;
+    }
+
+    /**
+     * Retorna el nombre de la persona que hizo el consumo.
+     * @return El nombre del cliente.
+     */
+    public String darNombreCliente() {
+        return nombreCliente;
+    }
+
+    /**
+     * Retorna el concepto del consumo.
+     * @return El concepto.
+     */
+    public String darConcepto() {
+        return concepto;
+    }
+
+    /**
+     * Retorna el valor del consumo.
+     * @return El valor en centavos.
+     */
+    public long darValorCentavos() {
+        return valor;
+    }
+}
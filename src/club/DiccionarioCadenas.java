@@ -0,0 +1,73 @@
+package club;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario que asigna a cada cadena distinta un código entero, y permite recuperar la cadena
+ * a partir del código. Los códigos no se liberan: el diccionario crece con la cantidad de nombres
+ * y conceptos distintos, no con la cantidad de facturas.
+ * Se puede usar desde varios hilos; la consulta de un código existente no toma ningún candado.
+ */
+class DiccionarioCadenas {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Código de cada cadena.
+     */
+    private final ConcurrentHashMap<String, Integer> codigos = new ConcurrentHashMap<String, Integer>();
+
+    /**
+     * Cadena de cada código. Se reemplaza por un arreglo más grande cuando se llena.
+     */
+    private volatile String[] cadenas = new String[256];
+
+    /**
+     * Cantidad de códigos asignados.
+     */
+    private int numeroCodigos;
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna el código de la cadena dada, asignándole uno nuevo si no lo tenía.
+     * @param pCadena Cadena a codificar. pCadena != null.
+     * @return El código de la cadena.
+     */
+    int codificar(String pCadena) {
+        Integer codigo = codigos.get(pCadena);
+        if(codigo != null) {
+            return codigo;
+        }
+        synchronized(this) {
+            codigo = codigos.get(pCadena);
+            if(codigo != null) {
+                return codigo;
+            }
+            String[] actuales = cadenas;
+            if(numeroCodigos == actuales.length) {
+                actuales = Arrays.copyOf(actuales, actuales.length * 2);
+            }
+            // La cadena queda en el arreglo antes de publicar su código
+            actuales[numeroCodigos] = pCadena;
+            cadenas = actuales;
+            codigos.put(pCadena, numeroCodigos);
+            return numeroCodigos++;
+        }
+    }
+
+    /**
+     * Retorna la cadena que tiene el código dado.
+     * pre: El código fue retornado por codificar.
+     * @param pCodigo Código de la cadena.
+     * @return La cadena.
+     */
+    String decodificar(int pCodigo) {
+        return cadenas[pCodigo];
+    }
+}
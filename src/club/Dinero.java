@@ -0,0 +1,148 @@
+package club;
+
+/**
+ * Utilidades para manejar valores de dinero en punto fijo.
+ * Los montos se representan como un long con la cantidad de centavos, de modo que
+ * las sumas y restas son exactas y no generan objetos.
+ */
+public final class Dinero {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de centavos que tiene una unidad monetaria.
+     */
+    public final static long CENTAVOS_POR_UNIDAD = 100;
+
+    /**
+     * Mayor monto, en unidades, que se puede convertir a centavos sin desbordar un long.
+     */
+    private final static double MAXIMO_CONVERTIBLE = Long.MAX_VALUE / CENTAVOS_POR_UNIDAD;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * La clase solo tiene métodos estáticos.
+     */
+    private Dinero() {
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Convierte un monto expresado en unidades a centavos, redondeando al centavo más cercano.
+     * @param pValor Monto en unidades. pValor es un número finito.
+     * @return El monto en centavos.
+     * @throws ArithmeticException Si el monto no es finito o no cabe en un long de centavos.
+     */
+    public static long aCentavos(double pValor) {
+        if(Double.isNaN(pValor) || Math.abs(pValor) > MAXIMO_CONVERTIBLE) {
+            throw new ArithmeticException("Monto fuera de rango: " + pValor);
+        }
+        return Math.round(pValor * CENTAVOS_POR_UNIDAD);
+    }
+
+    /**
+     * Convierte un monto escrito en unidades, por ejemplo "12.50", a centavos, directamente de sus
+     * caracteres: sin pasar por un double y sin expresiones regulares. Los decimales después del
+     * segundo redondean al centavo más cercano.
+     * @param pTexto Dígitos con un signo opcional y un punto decimal opcional.
+     * @return El monto en centavos.
+     * @throws NumberFormatException Si el texto no es un monto.
+     * @throws ArithmeticException Si el monto no cabe en un long de centavos.
+     */
+    public static long leer(String pTexto) {
+        int longitud = pTexto.length();
+        int posicion = 0;
+        boolean negativo = false;
+        if(longitud > 0 && (pTexto.charAt(0) == '-' || pTexto.charAt(0) == '+')) {
+            negativo = pTexto.charAt(0) == '-';
+            posicion = 1;
+        }
+
+        long unidades = 0;
+        long centavos = 0;
+        int decimales = -1;
+        boolean redondear = false;
+        boolean hayDigitos = false;
+        for(; posicion < longitud; posicion++) {
+            char caracter = pTexto.charAt(posicion);
+            if(caracter == '.' && decimales < 0) {
+                decimales = 0;
+                continue;
+            }
+            int digito = caracter - '0';
+            if(digito < 0 || digito > 9) {
+                throw new NumberFormatException("No es un monto: " + pTexto);
+            }
+            hayDigitos = true;
+            if(decimales < 0) {
+                unidades = Math.addExact(Math.multiplyExact(unidades, 10), digito);
+            } else if(decimales < 2) {
+                centavos = centavos * 10 + digito;
+                decimales++;
+            } else if(decimales == 2) {
+                redondear = digito >= 5;
+                decimales++;
+            }
+        }
+        if(!hayDigitos) {
+            throw new NumberFormatException("No es un monto: " + pTexto);
+        }
+        for(int i = Math.max(decimales, 0); i < 2; i++) {
+            centavos *= 10;
+        }
+
+        long monto = Math.addExact(Math.multiplyExact(unidades, CENTAVOS_POR_UNIDAD), centavos + (redondear ? 1 : 0));
+        return negativo ? -monto : monto;
+    }
+
+    /**
+     * Convierte un monto expresado en centavos a unidades.
+     * @param pCentavos Monto en centavos.
+     * @return El monto en unidades.
+     */
+    public static double aUnidades(long pCentavos) {
+        return (double) pCentavos / CENTAVOS_POR_UNIDAD;
+    }
+
+    /**
+     * Suma dos montos en centavos.
+     * @param pA Primer monto en centavos.
+     * @param pB Segundo monto en centavos.
+     * @return La suma exacta de los montos.
+     * @throws ArithmeticException Si la suma desborda un long.
+     */
+    public static long sumar(long pA, long pB) {
+        return Math.addExact(pA, pB);
+    }
+
+    /**
+     * Resta dos montos en centavos.
+     * @param pA Monto en centavos del que se resta.
+     * @param pB Monto en centavos que se resta.
+     * @return La diferencia exacta de los montos.
+     * @throws ArithmeticException Si la resta desborda un long.
+     */
+    public static long restar(long pA, long pB) {
+        return Math.subtractExact(pA, pB);
+    }
+
+    /**
+     * Retorna la cadena que representa un monto con dos decimales.
+     * @param pCentavos Monto en centavos.
+     * @return Cadena con el formato <unidades>.<centavos>, por ejemplo 12.05.
+     */
+    public static String formatear(long pCentavos) {
+        long absoluto = Math.abs(pCentavos);
+        long centavos = absoluto % CENTAVOS_POR_UNIDAD;
+        String signo = pCentavos < 0 ? "-" : "";
+        return signo + (absoluto / CENTAVOS_POR_UNIDAD) + (centavos < 10 ? ".0" : ".") + centavos;
+    }
+}
@@ -0,0 +1,156 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import club.Socio.Tipo;
+
+/**
+ * Copia inmutable de las cifras de un socio en un momento dado.
+ * Se puede leer desde cualquier hilo sin candados: nunca cambia después de creada.
+ */
+public class EstadoSocio {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cédula del socio.
+     */
+    private final String cedula;
+
+    /**
+     * Nombre del socio.
+     */
+    private final String nombre;
+
+    /**
+     * Tipo de subscripción del socio.
+     */
+    private final Tipo tipo;
+
+    /**
+     * Fondos del socio en centavos.
+     */
+    private final long fondos;
+
+    /**
+     * Total de las facturas pendientes del socio en centavos.
+     */
+    private final long totalPendiente;
+
+    /**
+     * Cantidad de facturas pendientes del socio.
+     */
+    private final int facturasPendientes;
+
+    /**
+     * Nombre del socio seguido de los de sus autorizados, en el orden en que se autorizaron.
+     * No se puede modificar.
+     */
+    private final List<String> personas;
+
+    /**
+     * Vista de personas sin el nombre del socio. No se puede modificar.
+     */
+    private final List<String> autorizados;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Copia las cifras del socio dado, con su candado.
+     * @param pSocio Socio a copiar. pSocio != null.
+     * @param pPersonas Lista inmutable con el nombre del socio seguido de sus autorizados, o null para
+     * copiarlos del socio.
+     */
+    EstadoSocio(Socio pSocio, List<String> pPersonas) {
+        cedula = pSocio.darCedula();
+        nombre = pSocio.darNombre();
+        tipo = pSocio.darTipo();
+        synchronized(pSocio) {
+            fondos = pSocio.darFondosCentavos();
+            totalPendiente = pSocio.darTotalPendienteCentavos();
+            facturasPendientes = pSocio.darNumeroFacturasPendientes();
+            if(pPersonas != null) {
+                personas = pPersonas;
+            } else {
+                ArrayList<String> copia = new ArrayList<String>(pSocio.darNumeroAutorizados() + 1);
+                copia.add(nombre);
+                copia.addAll(pSocio.darVistaAutorizados());
+                personas = Collections.unmodifiableList(copia);
+            }
+        }
+        autorizados = personas.subList(1, personas.size());
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna la cédula del socio.
+     * @return La cédula.
+     */
+    public String darCedula() {
+        return cedula;
+    }
+
+    /**
+     * Retorna el nombre del socio.
+     * @return El nombre.
+     */
+    public String darNombre() {
+        return nombre;
+    }
+
+    /**
+     * Retorna el tipo de subscripción del socio.
+     * @return El tipo.
+     */
+    public Tipo darTipo() {
+        return tipo;
+    }
+
+    /**
+     * Retorna los fondos del socio.
+     * @return Los fondos en centavos.
+     */
+    public long darFondosCentavos() {
+        return fondos;
+    }
+
+    /**
+     * Retorna el total de las facturas pendientes del socio.
+     * @return El total pendiente en centavos.
+     */
+    public long darTotalPendienteCentavos() {
+        return totalPendiente;
+    }
+
+    /**
+     * Retorna la cantidad de facturas pendientes del socio.
+     * @return El número de facturas pendientes.
+     */
+    public int darNumeroFacturasPendientes() {
+        return facturasPendientes;
+    }
+
+    /**
+     * Retorna los autorizados del socio.
+     * @return Lista inmutable con los nombres de los autorizados.
+     */
+    public List<String> darAutorizados() {
+        return autorizados;
+    }
+
+    /**
+     * Retorna el nombre del socio seguido de los de sus autorizados.
+     * @return Lista inmutable con los nombres, empezando por el del socio.
+     */
+    public List<String> darPersonas() {
+        return personas;
+    }
+}
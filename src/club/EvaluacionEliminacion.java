@@ -0,0 +1,142 @@
+package club;
+
+import club.Socio.Tipo;
+
+/**
+ * Resultado de revisar si un socio se puede eliminar: el caso que aplica y las cifras que lo explican.
+ * Las cifras son las del momento de la revisión; el socio puede cambiar después.
+ */
+public class EvaluacionEliminacion {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cédula del socio revisado.
+     */
+    private final String cedula;
+
+    /**
+     * Caso que aplica al socio.
+     */
+    private final CasoEliminacion caso;
+
+    /**
+     * Cantidad de facturas pendientes del socio al revisarlo.
+     */
+    private final int facturasPendientes;
+
+    /**
+     * Cantidad de autorizados del socio al revisarlo.
+     */
+    private final int autorizados;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea el resultado de la revisión de un socio.
+     * @param pCedula Cédula del socio. pCedula != null.
+     * @param pCaso Caso que aplica al socio. pCaso != null.
+     * @param pFacturasPendientes Cantidad de facturas pendientes del socio.
+     * @param pAutorizados Cantidad de autorizados del socio.
+     */
+    EvaluacionEliminacion(String pCedula, CasoEliminacion pCaso, int pFacturasPendientes, int pAutorizados) {
+        cedula = pCedula;
+        caso = pCaso;
+        facturasPendientes = pFacturasPendientes;
+        autorizados = pAutorizados;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Revisa si un socio con las cifras dadas se puede eliminar.
+     * @param pCedula Cédula del socio. pCedula != null.
+     * @param pTipo Tipo de subscripción del socio. pTipo != null.
+     * @param pFacturasPendientes Cantidad de facturas pendientes del socio.
+     * @param pAutorizados Cantidad de autorizados del socio.
+     * @return La revisión con el caso que aplica al socio.
+     */
+    static EvaluacionEliminacion evaluar(String pCedula, Tipo pTipo, int pFacturasPendientes, int pAutorizados) {
+        CasoEliminacion caso;
+        if(pTipo == Tipo.VIP) {
+            caso = CasoEliminacion.SOCIO_VIP;
+        } else if(pFacturasPendientes > 0) {
+            caso = CasoEliminacion.FACTURAS_PENDIENTES;
+        } else if(pAutorizados > 1) {
+            caso = CasoEliminacion.MUCHOS_AUTORIZADOS;
+        } else {
+            caso = CasoEliminacion.ELIMINABLE;
+        }
+        return new EvaluacionEliminacion(pCedula, caso, pFacturasPendientes, pAutorizados);
+    }
+
+    /**
+     * Retorna la cédula del socio revisado.
+     * @return La cédula.
+     */
+    public String darCedula() {
+        return cedula;
+    }
+
+    /**
+     * Retorna el caso que aplica al socio.
+     * @return El caso.
+     */
+    public CasoEliminacion darCaso() {
+        return caso;
+    }
+
+    /**
+     * Indica si el socio se podía eliminar al revisarlo.
+     * @return True si el caso es ELIMINABLE, false en caso contrario.
+     */
+    public boolean sePuedeEliminar() {
+        return caso == CasoEliminacion.ELIMINABLE;
+    }
+
+    /**
+     * Retorna la cantidad de facturas pendientes del socio al revisarlo.
+     * @return El número de facturas pendientes, 0 si el socio no existe.
+     */
+    public int darFacturasPendientes() {
+        return facturasPendientes;
+    }
+
+    /**
+     * Retorna la cantidad de autorizados del socio al revisarlo.
+     * @return El número de autorizados, 0 si el socio no existe.
+     */
+    public int darAutorizados() {
+        return autorizados;
+    }
+
+    /**
+     * Retorna la explicación del caso. Se arma solo cuando se pide, de modo que revisar
+     * muchos socios no construye ningún mensaje.
+     * @return La explicación del caso.
+     */
+    public String darDescripcion() {
+        switch(caso) {
+            case SOCIO_NO_EXISTE:
+                return "No existe un socio con la cédula: " + cedula;
+            case SOCIO_VIP:
+                return "No se pueden eliminar socios de tipo VIP.";
+            case FACTURAS_PENDIENTES:
+                return "No se puede eliminar un socio con facturas pendientes. " +
+                        "Facturas pendientes: " + facturasPendientes;
+            case MUCHOS_AUTORIZADOS:
+                return "No se puede eliminar un socio con más de un autorizado. " +
+                        "Autorizados: " + autorizados;
+            case COLA_LLENA:
+                return "El club está ocupado y no revisó al socio; intente nuevamente.";
+            default:
+                return "Cumple todas las condiciones para ser eliminado.";
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class AutorizadoConFacturasException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class AutorizadoConFacturasException extends RechazoException {
     public AutorizadoConFacturasException(String message) {
         super(message);
     }
+
+    public AutorizadoConFacturasException(Supplier<String> message) {
+        super(message);
+    }
 }
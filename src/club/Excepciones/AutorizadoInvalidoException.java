@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class AutorizadoInvalidoException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class AutorizadoInvalidoException extends RechazoException {
     public AutorizadoInvalidoException(String message) {
         super(message);
     }
+
+    public AutorizadoInvalidoException(Supplier<String> message) {
+        super(message);
+    }
 }
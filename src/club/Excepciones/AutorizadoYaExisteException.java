@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class AutorizadoYaExisteException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class AutorizadoYaExisteException extends RechazoException {
     public AutorizadoYaExisteException(String message) {
         super(message);
     }
+
+    public AutorizadoYaExisteException(Supplier<String> message) {
+        super(message);
+    }
 }
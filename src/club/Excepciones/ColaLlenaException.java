@@ -0,0 +1,13 @@
+package club.Excepciones;
+
+import java.util.function.Supplier;
+
+public class ColaLlenaException extends RechazoException {
+    public ColaLlenaException(String message) {
+        super(message);
+    }
+
+    public ColaLlenaException(Supplier<String> message) {
+        super(message);
+    }
+}
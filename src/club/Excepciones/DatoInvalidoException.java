@@ -0,0 +1,13 @@
+package club.Excepciones;
+
+import java.util.function.Supplier;
+
+public class DatoInvalidoException extends RechazoException {
+    public DatoInvalidoException(String message) {
+        super(message);
+    }
+
+    public DatoInvalidoException(Supplier<String> message) {
+        super(message);
+    }
+}
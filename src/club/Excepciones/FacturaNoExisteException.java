@@ -0,0 +1,13 @@
+package club.Excepciones;
+
+import java.util.function.Supplier;
+
+public class FacturaNoExisteException extends RechazoException {
+    public FacturaNoExisteException(String message) {
+        super(message);
+    }
+
+    public FacturaNoExisteException(Supplier<String> message) {
+        super(message);
+    }
+}
@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class FacturasPendientesException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class FacturasPendientesException extends RechazoException {
     public FacturasPendientesException(String message) {
         super(message);
     }
+
+    public FacturasPendientesException(Supplier<String> message) {
+        super(message);
+    }
 }
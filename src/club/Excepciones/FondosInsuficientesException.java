@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class FondosInsuficientesException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class FondosInsuficientesException extends RechazoException {
     public FondosInsuficientesException(String message) {
         super(message);
     }
+
+    public FondosInsuficientesException(Supplier<String> message) {
+        super(message);
+    }
 }
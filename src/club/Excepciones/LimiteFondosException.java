@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class LimiteFondosException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class LimiteFondosException extends RechazoException {
     public LimiteFondosException(String message) {
         super(message);
     }
+
+    public LimiteFondosException(Supplier<String> message) {
+        super(message);
+    }
 }
@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class LimiteVIPException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class LimiteVIPException extends RechazoException {
     public LimiteVIPException(String message) {
         super(message);
     }
+
+    public LimiteVIPException(Supplier<String> message) {
+        super(message);
+    }
 }
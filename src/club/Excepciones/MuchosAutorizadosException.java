@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class MuchosAutorizadosException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class MuchosAutorizadosException extends RechazoException {
     public MuchosAutorizadosException(String message) {
         super(message);
     }
+
+    public MuchosAutorizadosException(Supplier<String> message) {
+        super(message);
+    }
 }
@@ -0,0 +1,54 @@
+package club.Excepciones;
+
+import java.util.function.Supplier;
+
+/**
+ * Rechazo esperado de una operación del club, como un consumo sin fondos suficientes.
+ * Los rechazos son frecuentes en horas pico, así que se puede evitar el costo de capturar la
+ * traza de la pila con capturarTrazas(false). El mensaje se puede dar ya armado o como una
+ * función que lo arma la primera vez que alguien lo pide.
+ */
+public class RechazoException extends RuntimeException {
+
+    /**
+     * Indica si los rechazos que se creen capturan la traza de la pila.
+     */
+    private static volatile boolean capturarTraza = true;
+
+    /**
+     * Función que arma el mensaje, null si ya está armado.
+     */
+    private Supplier<String> armador;
+
+    /**
+     * Mensaje armado, null mientras no se haya pedido.
+     */
+    private String mensaje;
+
+    public RechazoException(String message) {
+        super(message, null, true, capturarTraza);
+        mensaje = message;
+    }
+
+    public RechazoException(Supplier<String> message) {
+        super(null, null, true, capturarTraza);
+        armador = message;
+    }
+
+    /**
+     * Define si los rechazos que se creen de ahora en adelante capturan la traza de la pila.
+     * @param pCapturar false para no capturarla, por ejemplo en un servidor de puntos de venta.
+     */
+    public static void capturarTrazas(boolean pCapturar) {
+        capturarTraza = pCapturar;
+    }
+
+    public String getMessage() {
+        Supplier<String> a = armador;
+        if(a != null) {
+            mensaje = a.get();
+            armador = null;
+        }
+        return mensaje;
+    }
+}
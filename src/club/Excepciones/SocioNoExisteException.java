@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class SocioNoExisteException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class SocioNoExisteException extends RechazoException {
     public SocioNoExisteException(String message) {
         super(message);
     }
+
+    public SocioNoExisteException(Supplier<String> message) {
+        super(message);
+    }
 }
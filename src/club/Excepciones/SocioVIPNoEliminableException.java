@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class SocioVIPNoEliminableException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class SocioVIPNoEliminableException extends RechazoException {
     public SocioVIPNoEliminableException(String message) {
         super(message);
     }
+
+    public SocioVIPNoEliminableException(Supplier<String> message) {
+        super(message);
+    }
 }
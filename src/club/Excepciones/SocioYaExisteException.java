@@ -1,7 +1,13 @@
 package club.Excepciones;
 
-public class SocioYaExisteException extends RuntimeException {
+import java.util.function.Supplier;
+
+public class SocioYaExisteException extends RechazoException {
     public SocioYaExisteException(String message) {
         super(message);
     }
+
+    public SocioYaExisteException(Supplier<String> message) {
+        super(message);
+    }
 }
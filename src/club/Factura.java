@@ -8,15 +8,20 @@ public class Factura
     // -----------------------------------------------------------------
     // Atributos
     // -----------------------------------------------------------------
+    /**
+     * Identificador de la factura. Es único entre las facturas del socio y no cambia al pagar otras facturas.
+     */
+    private long id;
+
     /**
      * Es la descripci�n del consumo que gener� esta factura.
      */
     private String concepto;
 
     /**
-     * Es el valor del consumo que gener� la factura.
+     * Es el valor, en centavos, del consumo que gener� la factura.
      */
-    private double valor;
+    private long valor;
 
     /**
      * Nombre de la persona que hizo el consumo que gener� la factura.
@@ -30,20 +35,39 @@ public class Factura
     /**
      * Construye un objeto factura asociado a un consumo de un socio o de un autorizado.
      * <b>post: <b> Se inicializaron los atributos con los valores dados.
+     * @param pId Identificador de la factura dentro del socio. pId > 0.
      * @param pNombre Nombre de la persona que hizo el consumo. pNombre != null && pNombre != "".
      * @param pConcepto Concepto del consumo. pConcepto != null && pConcepto != "".
-     * @param pValor Valor del consumo. pValor >0.
+     * @param pValor Valor del consumo en centavos. pValor >0.
      */
-    public Factura( String pNombre, String pConcepto, double pValor )
+    public Factura( long pId, String pNombre, String pConcepto, long pValor )
     {
+        id = pId;
         nombre = pNombre;
         concepto = pConcepto;
         valor = pValor;
     }
 
+    /**
+     * Construye una factura cuyos datos están guardados en otra parte, como las vistas de un
+     * registro de facturas por columnas, que redefinen los métodos de consulta.
+     */
+    protected Factura( )
+    {
+    }
+
     // -----------------------------------------------------------------
     // M�todos
     // -----------------------------------------------------------------
+    /**
+     * Retorna el identificador de la factura. <br>
+     * @return El identificador de la factura dentro del socio.
+     */
+    public long darId( )
+    {
+        return id;
+    }
+
     /**
      * Retorna el concepto de la factura. <br>
      * @return El concepto de la factura.
@@ -58,6 +82,15 @@ public class Factura
      * @return El valor de la factura.
      */
     public double darValor( )
+    {
+        return Dinero.aUnidades( valor );
+    }
+
+    /**
+     * Retorna el valor de la factura en centavos. <br>
+     * @return El valor de la factura en centavos.
+     */
+    public long darValorCentavos( )
     {
         return valor;
     }
@@ -78,7 +111,7 @@ public class Factura
      */
     public String toString( )
     {
-        String factura = concepto + "    $" + valor + "    (" + nombre + ")";
+        String factura = darConcepto( ) + "    $" + Dinero.formatear( darValorCentavos( ) ) + "    (" + darNombre( ) + ")";
         return factura;
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Registro de facturas guardado por columnas en arreglos de primitivos.
+ * Cada factura ocupa una posición de los arreglos de identificadores, valores, nombres y conceptos;
+ * el nombre y el concepto se guardan como códigos de un diccionario compartido por todos los socios.
+ * Al quitar una factura su posición queda marcada como vacía (identificador negativo) y los arreglos
+ * se compactan cuando las posiciones vacías superan a las ocupadas. Como los identificadores
+ * crecen con las posiciones, una factura se ubica directamente mientras no haya habido compactaciones
+ * y, si no, por búsqueda binaria.
+ */
+class FacturasColumnas implements RegistroFacturas {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Diccionario de los nombres y conceptos de las facturas de todos los socios.
+     */
+    static final DiccionarioCadenas DICCIONARIO = new DiccionarioCadenas();
+
+    /**
+     * Capacidad inicial de los arreglos.
+     */
+    private final static int CAPACIDAD_INICIAL = 4;
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Identificador de la factura de cada posición, negativo si la posición quedó vacía.
+     */
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Valor en centavos de la factura de cada posición.
+     */
+    private long[] valores = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Código del nombre del cliente de la factura de cada posición.
+     */
+    private int[] nombres = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Código del concepto de la factura de cada posición.
+     */
+    private int[] conceptos = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Cantidad de posiciones usadas, ocupadas o vacías.
+     */
+    private int posiciones;
+
+    /**
+     * Cantidad de posiciones ocupadas por una factura.
+     */
+    private int numero;
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    public void agregar(long pId, String pNombre, String pConcepto, long pValor) {
+        if(posiciones == ids.length) {
+            int capacidad = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            valores = Arrays.copyOf(valores, capacidad);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            conceptos = Arrays.copyOf(conceptos, capacidad);
+        }
+        ids[posiciones] = pId;
+        valores[posiciones] = pValor;
+        nombres[posiciones] = DICCIONARIO.codificar(pNombre);
+        conceptos[posiciones] = DICCIONARIO.codificar(pConcepto);
+        posiciones++;
+        numero++;
+    }
+
+    public Factura buscar(long pId) {
+        int posicion = ubicar(pId);
+        return posicion < 0 ? null : new VistaFactura(posicion);
+    }
+
+    public void quitar(long pId) {
+        int posicion = ubicar(pId);
+        ids[posicion] = -pId;
+        numero--;
+
+        // Las posiciones vacías del final se descartan de inmediato
+        while(posiciones > 0 && ids[posiciones - 1] < 0) {
+            posiciones--;
+        }
+        if(posiciones - numero > numero && posiciones > CAPACIDAD_INICIAL) {
+            compactar();
+        }
+    }
+
+    public long darIdEnPosicion(int pPosicion) {
+        int vistas = -1;
+        for(int i = 0; i < posiciones; i++) {
+            if(ids[i] > 0 && ++vistas == pPosicion) {
+                return ids[i];
+            }
+        }
+        throw new IndexOutOfBoundsException(pPosicion);
+    }
+
+    public int darNumero() {
+        return numero;
+    }
+
+    public void recorrer(Consumer<Factura> pAccion) {
+        VistaFactura vista = new VistaFactura(0);
+        for(int i = 0; i < posiciones; i++) {
+            if(ids[i] > 0) {
+                vista.posicion = i;
+                pAccion.accept(vista);
+            }
+        }
+    }
+
+    public ArrayList<Factura> copiar() {
+        ArrayList<Factura> copia = new ArrayList<Factura>(numero);
+        for(int i = 0; i < posiciones; i++) {
+            if(ids[i] > 0) {
+                copia.add(new Factura(ids[i], DICCIONARIO.decodificar(nombres[i]),
+                        DICCIONARIO.decodificar(conceptos[i]), valores[i]));
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * Retorna la posición de la factura con el identificador dado.
+     * @param pId Identificador de la factura.
+     * @return La posición, o -1 si la factura no está.
+     */
+    private int ubicar(long pId) {
+        if(posiciones == 0 || pId <= 0) {
+            return -1;
+        }
+
+        // Sin compactaciones las posiciones avanzan al mismo paso que los identificadores
+        long desplazamiento = pId - Math.abs(ids[0]);
+        if(desplazamiento >= 0 && desplazamiento < posiciones && ids[(int) desplazamiento] == pId) {
+            return (int) desplazamiento;
+        }
+
+        int bajo = 0;
+        int alto = posiciones - 1;
+        while(bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long id = Math.abs(ids[medio]);
+            if(id < pId) {
+                bajo = medio + 1;
+            } else if(id > pId) {
+                alto = medio - 1;
+            } else {
+                return ids[medio] == pId ? medio : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Mueve las facturas hacia el inicio de los arreglos, eliminando las posiciones vacías.
+     * post: posiciones == numero.
+     */
+    private void compactar() {
+        int destino = 0;
+        for(int i = 0; i < posiciones; i++) {
+            if(ids[i] > 0) {
+                ids[destino] = ids[i];
+                valores[destino] = valores[i];
+                nombres[destino] = nombres[i];
+                conceptos[destino] = conceptos[i];
+                destino++;
+            }
+        }
+        posiciones = destino;
+    }
+
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
+
+    /**
+     * Vista de la factura de una posición de los arreglos. No copia los datos de la factura,
+     * así que solo es válida mientras el registro no se modifique.
+     */
+    private class VistaFactura extends Factura {
+
+        /**
+         * Posición de la factura en los arreglos.
+         */
+        private int posicion;
+
+        /**
+         * Crea una vista de la factura de la posición dada.
+         * @param pPosicion Posición de la factura.
+         */
+        private VistaFactura(int pPosicion) {
+            posicion = pPosicion;
+        }
+
+        public long darId() {
+            return ids[posicion];
+        }
+
+        public String darConcepto() {
+            return DICCIONARIO.decodificar(conceptos[posicion]);
+        }
+
+        public double darValor() {
+            return Dinero.aUnidades(valores[posicion]);
+        }
+
+        public long darValorCentavos() {
+            return valores[posicion];
+        }
+
+        public String darNombre() {
+            return DICCIONARIO.decodificar(nombres[posicion]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Registro de facturas donde cada factura es un objeto, en un mapa ordenado por llegada.
+ */
+class FacturasObjetos implements RegistroFacturas {
+
+    /**
+     * Facturas por identificador, en el orden en que se agregaron.
+     */
+    private final LinkedHashMap<Long, Factura> facturas = new LinkedHashMap<Long, Factura>();
+
+    public void agregar(long pId, String pNombre, String pConcepto, long pValor) {
+        facturas.put(pId, new Factura(pId, pNombre, pConcepto, pValor));
+    }
+
+    public Factura buscar(long pId) {
+        return facturas.get(pId);
+    }
+
+    public void quitar(long pId) {
+        facturas.remove(pId);
+    }
+
+    public long darIdEnPosicion(int pPosicion) {
+        Iterator<Long> ids = facturas.keySet().iterator();
+        for(int i = 0; i < pPosicion; i++) {
+            ids.next();
+        }
+        return ids.next();
+    }
+
+    public int darNumero() {
+        return facturas.size();
+    }
+
+    public void recorrer(Consumer<Factura> pAccion) {
+        for(Factura factura : facturas.values()) {
+            pAccion.accept(factura);
+        }
+    }
+
+    public ArrayList<Factura> copiar() {
+        return new ArrayList<Factura>(facturas.values());
+    }
+}
@@ -0,0 +1,33 @@
+package club;
+
+/**
+ * Forma en que cada socio guarda sus facturas pendientes.
+ */
+public enum FormatoFacturas {
+
+    /**
+     * Cada factura es un objeto, en un mapa por identificador. Es el formato por defecto.
+     */
+    OBJETOS {
+        RegistroFacturas crear() {
+            return new FacturasObjetos();
+        }
+    },
+
+    /**
+     * Las facturas se guardan por columnas en arreglos de primitivos, con el nombre y el concepto
+     * codificados como enteros de un diccionario. Usa mucho menos memoria cuando hay millones de
+     * facturas pendientes y los recorridos pasan por memoria contigua.
+     */
+    COLUMNAS {
+        RegistroFacturas crear() {
+            return new FacturasColumnas();
+        }
+    };
+
+    /**
+     * Crea un registro vacío de facturas en este formato.
+     * @return El registro de facturas.
+     */
+    abstract RegistroFacturas crear();
+}
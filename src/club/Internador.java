@@ -0,0 +1,115 @@
+package club;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Depósito acotado de cadenas para que las cadenas iguales que se repiten en muchas facturas
+ * (conceptos como "Bebidas" o "Restaurante", nombres de clientes) compartan una sola instancia.
+ * Es una tabla de tamaño fijo indexada por el hash de la cadena: si la posición tiene una cadena
+ * igual se reutiliza, y si no la nueva cadena reemplaza a la que hubiera. Así la memoria usada no
+ * crece con la cantidad de cadenas distintas, a cambio de que dos cadenas frecuentes que caen en la
+ * misma posición se desplacen entre sí. Se puede usar desde varios hilos sin candados.
+ */
+public class Internador {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Depósito que comparten las facturas y los cargadores del club.
+     */
+    public final static Internador COMPARTIDO = new Internador(64 * 1024);
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cadenas guardadas, por posición.
+     */
+    private final AtomicReferenceArray<String> tabla;
+
+    /**
+     * Máscara para convertir un hash en una posición de la tabla.
+     */
+    private final int mascara;
+
+    /**
+     * Cantidad de búsquedas que encontraron una cadena igual.
+     */
+    private final LongAdder aciertos;
+
+    /**
+     * Cantidad de búsquedas que no encontraron una cadena igual.
+     */
+    private final LongAdder fallos;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea un depósito con la capacidad dada, redondeada a la siguiente potencia de dos.
+     * @param pCapacidad Máxima cantidad de cadenas guardadas. pCapacidad > 0.
+     */
+    public Internador(int pCapacidad) {
+        int capacidad = Integer.highestOneBit(Math.max(1, pCapacidad - 1)) << 1;
+        tabla = new AtomicReferenceArray<String>(capacidad);
+        mascara = capacidad - 1;
+        aciertos = new LongAdder();
+        fallos = new LongAdder();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna la instancia guardada de una cadena igual a la dada, o guarda la dada si no hay.
+     * @param pCadena Cadena a internar. Puede ser null.
+     * @return Una cadena igual a pCadena.
+     */
+    public String internar(String pCadena) {
+        if(pCadena == null) {
+            return null;
+        }
+        int hash = pCadena.hashCode();
+        int posicion = (hash ^ (hash >>> 16)) & mascara;
+        String guardada = tabla.get(posicion);
+        if(guardada != null && guardada.equals(pCadena)) {
+            aciertos.increment();
+            return guardada;
+        }
+        fallos.increment();
+        tabla.set(posicion, pCadena);
+        return pCadena;
+    }
+
+    /**
+     * Retorna la cantidad de búsquedas que reutilizaron una cadena guardada.
+     * @return El número de aciertos.
+     */
+    public long darAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Retorna la cantidad de búsquedas que no encontraron una cadena guardada.
+     * @return El número de fallos.
+     */
+    public long darFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Retorna la fracción de las búsquedas que reutilizaron una cadena guardada.
+     * @return La tasa de aciertos entre 0 y 1, 0 si no ha habido búsquedas.
+     */
+    public double darTasaAciertos() {
+        long a = aciertos.sum();
+        long total = a + fallos.sum();
+        return total == 0 ? 0 : (double) a / total;
+    }
+}
@@ -0,0 +1,341 @@
+package club.Persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import club.AlmacenSocios;
+import club.Club;
+import club.FormatoFacturas;
+
+/**
+ * Almacenamiento durable de un club en un directorio.
+ * El directorio contiene la última instantánea del club y los segmentos de la bitácora
+ * con las modificaciones posteriores. Al abrirlo se carga la instantánea y se reproduce
+ * solo la parte de la bitácora que no está reflejada en ella.
+ */
+public class AlmacenClub implements Closeable {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Nombre del archivo de la instantánea dentro del directorio.
+     */
+    private final static String ARCHIVO_INSTANTANEA = "instantanea.bin";
+
+    /**
+     * Prefijo de los archivos de los segmentos de la bitácora.
+     */
+    private final static String PREFIJO_SEGMENTO = "bitacora-";
+
+    /**
+     * Sufijo de los archivos de los segmentos de la bitácora.
+     */
+    private final static String SUFIJO_SEGMENTO = ".log";
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Directorio del almacenamiento.
+     */
+    private final Path directorio;
+
+    /**
+     * Club recuperado del directorio.
+     */
+    private final Club club;
+
+    /**
+     * Bitácora donde el club anota sus modificaciones.
+     */
+    private final BitacoraArchivo bitacora;
+
+    /**
+     * Número del segmento de la bitácora en el que se está escribiendo.
+     */
+    private int segmentoActual;
+
+    /**
+     * Tiempo, en milisegundos, que tomó recuperar el club al abrir el almacenamiento.
+     */
+    private final long milisegundosRecuperacion;
+
+    /**
+     * Cantidad de registros de la bitácora que se aplicaron durante la recuperación.
+     */
+    private final long registrosReproducidos;
+
+    /**
+     * Cantidad de registros de la bitácora que el club rechazó durante la recuperación.
+     */
+    private final long registrosOmitidos;
+
+    /**
+     * Hilo que toma las instantáneas periódicas, null si no se han programado.
+     */
+    private ScheduledExecutorService programador;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Abre el almacenamiento del directorio dado y recupera el club guardado en él.
+     * Los socios del club recuperado se guardan en memoria.
+     * post: El club tiene el estado guardado y la bitácora asignada.
+     * @param pDirectorio Directorio del almacenamiento. Si no existe se crea.
+     * @throws IOException Si no se puede leer o crear el almacenamiento.
+     */
+    public AlmacenClub(Path pDirectorio) throws IOException {
+        this(pDirectorio, AlmacenSocios.MEMORIA);
+    }
+
+    /**
+     * Abre el almacenamiento del directorio dado y recupera el club guardado en él.
+     * Si el último segmento termina en un registro incompleto o dañado (por una caída durante
+     * la escritura), ese registro y lo que le sigue se descartan.
+     * post: El club tiene el estado guardado y la bitácora asignada.
+     * @param pDirectorio Directorio del almacenamiento. Si no existe se crea.
+     * @param pSocios Almacenamiento donde el club recuperado guarda los fondos de sus socios. pSocios != null.
+     * @throws IOException Si no se puede leer o crear el almacenamiento.
+     */
+    public AlmacenClub(Path pDirectorio, AlmacenSocios pSocios) throws IOException {
+        this(pDirectorio, pSocios, FormatoFacturas.OBJETOS);
+    }
+
+    /**
+     * Abre el almacenamiento del directorio dado y recupera el club guardado en él, con las
+     * facturas de los socios en el formato dado.
+     * post: El club tiene el estado guardado y la bitácora asignada.
+     * @param pDirectorio Directorio del almacenamiento. Si no existe se crea.
+     * @param pSocios Almacenamiento donde el club recuperado guarda los fondos de sus socios. pSocios != null.
+     * @param pFormatoFacturas Formato de las facturas de los socios. pFormatoFacturas != null.
+     * @throws IOException Si no se puede leer o crear el almacenamiento.
+     */
+    public AlmacenClub(Path pDirectorio, AlmacenSocios pSocios, FormatoFacturas pFormatoFacturas) throws IOException {
+        this(pDirectorio, new Club(pSocios, pFormatoFacturas));
+    }
+
+    /**
+     * Abre el almacenamiento del directorio dado y recupera en el club dado lo guardado en él,
+     * por ejemplo en un club de un solo escritor.
+     * pre: El club está vacío y no tiene bitácora.
+     * post: El club tiene el estado guardado y la bitácora asignada.
+     * @param pDirectorio Directorio del almacenamiento. Si no existe se crea.
+     * @param pClub Club donde se recupera el estado guardado. pClub != null.
+     * @throws IOException Si no se puede leer o crear el almacenamiento.
+     */
+    public AlmacenClub(Path pDirectorio, Club pClub) throws IOException {
+        long inicio = System.nanoTime();
+        directorio = pDirectorio;
+        Files.createDirectories(directorio);
+        club = pClub;
+
+        // Cargar la instantánea, si la hay
+        HashMap<String, Long> secuenciasSocios = new HashMap<String, Long>();
+        long desde = 0;
+        Path instantanea = directorio.resolve(ARCHIVO_INSTANTANEA);
+        if(Files.exists(instantanea)) {
+            desde = Instantanea.leer(instantanea, club, secuenciasSocios);
+        }
+        long ultimaSecuencia = desde;
+        for(Long secuencia : secuenciasSocios.values()) {
+            ultimaSecuencia = Math.max(ultimaSecuencia, secuencia);
+        }
+
+        // Reproducir los segmentos de la bitácora en orden; el último queda abierto para escribir
+        ArrayList<Integer> segmentos = listarSegmentos();
+        if(segmentos.isEmpty()) {
+            segmentos.add(1);
+        }
+        long aplicados = 0;
+        long omitidos = 0;
+        FileChannel canal = null;
+        try {
+            for(int i = 0; i < segmentos.size(); i++) {
+                boolean ultimo = i == segmentos.size() - 1;
+                canal = ultimo
+                        ? FileChannel.open(rutaSegmento(segmentos.get(i)), StandardOpenOption.CREATE,
+                                StandardOpenOption.READ, StandardOpenOption.WRITE)
+                        : FileChannel.open(rutaSegmento(segmentos.get(i)), StandardOpenOption.READ);
+
+                long[] resultado = BitacoraArchivo.reproducir(Channels.newInputStream(canal), club,
+                        desde, secuenciasSocios);
+                ultimaSecuencia = Math.max(ultimaSecuencia, resultado[0]);
+                aplicados += resultado[2];
+                omitidos += resultado[3];
+
+                if(ultimo) {
+                    canal.truncate(resultado[1]);
+                    canal.position(resultado[1]);
+                    Instantanea.sincronizarDirectorio(directorio);
+                } else {
+                    canal.close();
+                }
+            }
+        } catch(IOException | RuntimeException e) {
+            // Un registro que no se puede aplicar también deja el segmento abierto
+            if(canal != null) {
+                canal.close();
+            }
+            throw e;
+        }
+
+        segmentoActual = segmentos.get(segmentos.size() - 1);
+        bitacora = new BitacoraArchivo(canal, ultimaSecuencia);
+        club.asignarBitacora(bitacora);
+
+        registrosReproducidos = aplicados;
+        registrosOmitidos = omitidos;
+        milisegundosRecuperacion = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna el club recuperado del almacenamiento.
+     * @return El club.
+     */
+    public Club darClub() {
+        return club;
+    }
+
+    /**
+     * Retorna el tiempo que tomó recuperar el club al abrir el almacenamiento.
+     * @return El tiempo de recuperación en milisegundos.
+     */
+    public long darMilisegundosRecuperacion() {
+        return milisegundosRecuperacion;
+    }
+
+    /**
+     * Retorna la cantidad de registros de la bitácora aplicados durante la recuperación.
+     * @return El número de registros reproducidos.
+     */
+    public long darRegistrosReproducidos() {
+        return registrosReproducidos;
+    }
+
+    /**
+     * Retorna la cantidad de registros de la bitácora que el club rechazó durante la recuperación.
+     * Solo es distinta de cero si el entorno cambió desde que se anotaron, por ejemplo un límite
+     * de socios VIP menor.
+     * @return El número de registros omitidos.
+     */
+    public long darRegistrosOmitidos() {
+        return registrosOmitidos;
+    }
+
+    /**
+     * Toma una instantánea del club y borra los segmentos de la bitácora que quedan reflejados en ella.
+     * Los puntos de venta pueden seguir modificando el club mientras se toma.
+     * post: La instantánea está en el disco y solo quedan los segmentos posteriores a ella.
+     * @throws IOException Si no se pudo escribir la instantánea o rotar la bitácora.
+     */
+    public synchronized void tomarInstantanea() throws IOException {
+        // Todo lo que quede en los segmentos anteriores ya está aplicado en el club
+        // y por lo tanto quedará en la instantánea
+        int nuevoSegmento = segmentoActual + 1;
+        FileChannel canal = FileChannel.open(rutaSegmento(nuevoSegmento),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            // La entrada del segmento nuevo debe ser durable antes de que se sincronicen registros en él
+            Instantanea.sincronizarDirectorio(directorio);
+        } catch(IOException e) {
+            canal.close();
+            throw e;
+        }
+        bitacora.rotar(canal);
+        segmentoActual = nuevoSegmento;
+
+        // La instantánea queda sincronizada junto con su directorio antes de borrar los segmentos
+        Instantanea.escribir(directorio.resolve(ARCHIVO_INSTANTANEA), club, bitacora);
+
+        for(int segmento : listarSegmentos()) {
+            if(segmento < segmentoActual) {
+                Files.delete(rutaSegmento(segmento));
+            }
+        }
+    }
+
+    /**
+     * Programa la toma de instantáneas en un hilo de fondo cada cierto tiempo.
+     * post: Se toma una instantánea cada pPeriodo unidades de tiempo hasta que se cierre el almacenamiento.
+     * @param pPeriodo Tiempo entre instantáneas. pPeriodo > 0.
+     * @param pUnidad Unidad del tiempo. pUnidad != null.
+     */
+    public synchronized void programarInstantaneas(long pPeriodo, TimeUnit pUnidad) {
+        if(programador == null) {
+            programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "instantaneas-club");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        programador.scheduleWithFixedDelay(() -> {
+            try {
+                tomarInstantanea();
+            } catch(IOException e) {
+                System.err.println("No se pudo tomar la instantánea del club: " + e.getMessage());
+            }
+        }, pPeriodo, pPeriodo, pUnidad);
+    }
+
+    /**
+     * Retorna los números de los segmentos de la bitácora que hay en el directorio, ordenados.
+     * @return Lista de números de segmento.
+     * @throws IOException Si no se puede listar el directorio.
+     */
+    private ArrayList<Integer> listarSegmentos() throws IOException {
+        ArrayList<Integer> segmentos = new ArrayList<Integer>();
+        try(DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio,
+                PREFIJO_SEGMENTO + "*" + SUFIJO_SEGMENTO)) {
+            for(Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                segmentos.add(Integer.parseInt(nombre.substring(PREFIJO_SEGMENTO.length(),
+                        nombre.length() - SUFIJO_SEGMENTO.length())));
+            }
+        }
+        Collections.sort(segmentos);
+        return segmentos;
+    }
+
+    /**
+     * Retorna la ruta del segmento de la bitácora con el número dado.
+     * @param pSegmento Número del segmento.
+     * @return La ruta del archivo del segmento.
+     */
+    private Path rutaSegmento(int pSegmento) {
+        return directorio.resolve(String.format("%s%08d%s", PREFIJO_SEGMENTO, pSegmento, SUFIJO_SEGMENTO));
+    }
+
+    /**
+     * Detiene las instantáneas programadas y cierra la bitácora.
+     * post: Todas las modificaciones anotadas están en el disco.
+     * @throws IOException Si no se pudo cerrar la bitácora.
+     */
+    public void close() throws IOException {
+        synchronized(this) {
+            if(programador != null) {
+                programador.shutdownNow();
+            }
+        }
+        bitacora.close();
+    }
+}
@@ -0,0 +1,235 @@
+package club.Persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import club.AlmacenSocios;
+import club.CeldaFondos;
+
+/**
+ * Almacenamiento de los fondos de los socios en ranuras de ancho fijo de un archivo mapeado en memoria.
+ * Cada ranura tiene el formato [fondos:long][ocupada:byte] y ocupa 16 bytes. Los fondos se leen y
+ * escriben directamente sobre el mapeo, sin copiarlos al montículo.
+ * Este almacenamiento no cumple el objetivo de sacar los registros de los socios del montículo: la
+ * cédula, el nombre, el tipo, los autorizados y las facturas siguen siendo objetos del socio, así que
+ * la memoria y el trabajo del recolector por socio son casi los mismos que con AlmacenSocios.MEMORIA.
+ * Solo se ahorra el long de los fondos.
+ * El archivo crece por regiones a medida que se afilian socios, sin volver a mapear las anteriores.
+ * El archivo es un área de trabajo: el estado durable del club lo guardan la bitácora y las
+ * instantáneas, por lo que se reinicia cada vez que se abre.
+ */
+public class ArchivoSociosMapeado implements AlmacenSocios, Closeable {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de bytes de cada ranura. Es múltiplo de 8 para que los fondos queden alineados.
+     */
+    public final static int TAMANO_RANURA = 16;
+
+    /**
+     * Cantidad de ranuras de cada región mapeada.
+     */
+    private final static int RANURAS_POR_REGION = 64 * 1024;
+
+    /**
+     * Posición de los fondos dentro de la ranura.
+     */
+    private final static int POS_FONDOS = 0;
+
+    /**
+     * Posición de la marca de ranura ocupada.
+     */
+    private final static int POS_OCUPADA = 8;
+
+    /**
+     * Acceso atómico a un long dentro de un buffer mapeado.
+     */
+    private final static VarHandle LONG_MAPEADO =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Canal del archivo mapeado.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Regiones mapeadas del archivo, en orden.
+     */
+    private final ArrayList<MappedByteBuffer> regiones;
+
+    /**
+     * Ranuras liberadas que se pueden volver a usar.
+     */
+    private final ArrayList<Integer> ranurasLibres;
+
+    /**
+     * Cantidad de ranuras usadas alguna vez; la siguiente ranura nueva es esta.
+     */
+    private int ranurasUsadas;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea el almacenamiento sobre el archivo dado, descartando lo que tuviera.
+     * post: El archivo está vacío y listo para recibir socios.
+     * @param pArchivo Ruta del archivo. pArchivo != null.
+     * @throws IOException Si no se puede crear el archivo.
+     */
+    public ArchivoSociosMapeado(Path pArchivo) throws IOException {
+        canal = FileChannel.open(pArchivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        regiones = new ArrayList<MappedByteBuffer>();
+        ranurasLibres = new ArrayList<Integer>();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    public CeldaFondos reservar(long pFondos) {
+        int ranura;
+        MappedByteBuffer region;
+        synchronized(this) {
+            ranura = tomarRanura();
+            region = regiones.get(ranura / RANURAS_POR_REGION);
+        }
+        int inicio = (ranura % RANURAS_POR_REGION) * TAMANO_RANURA;
+
+        LONG_MAPEADO.setVolatile(region, inicio + POS_FONDOS, pFondos);
+        region.put(inicio + POS_OCUPADA, (byte) 1);
+
+        return new Celda(region, inicio, ranura);
+    }
+
+    public synchronized void liberar(CeldaFondos pCelda) {
+        Celda celda = (Celda) pCelda;
+        celda.region.put(celda.inicio + POS_OCUPADA, (byte) 0);
+        ranurasLibres.add(celda.ranura);
+    }
+
+    public synchronized void asegurarCapacidad(int pSocios) {
+        while((long) regiones.size() * RANURAS_POR_REGION < pSocios) {
+            mapearRegion();
+        }
+    }
+
+    /**
+     * Toma una ranura libre, mapeando una región nueva si hace falta.
+     * pre: El hilo actual tiene el candado del almacenamiento.
+     * @return El número de la ranura.
+     */
+    private int tomarRanura() {
+        if(!ranurasLibres.isEmpty()) {
+            return ranurasLibres.remove(ranurasLibres.size() - 1);
+        }
+
+        int ranura = ranurasUsadas;
+        if(ranura / RANURAS_POR_REGION == regiones.size()) {
+            mapearRegion();
+        }
+        ranurasUsadas++;
+        return ranura;
+    }
+
+    /**
+     * Amplía el archivo con una región nueva y la mapea.
+     * pre: El hilo actual tiene el candado del almacenamiento.
+     * post: Hay RANURAS_POR_REGION ranuras nuevas disponibles.
+     */
+    private void mapearRegion() {
+        long posicion = (long) regiones.size() * RANURAS_POR_REGION * TAMANO_RANURA;
+        try {
+            regiones.add(canal.map(FileChannel.MapMode.READ_WRITE, posicion,
+                    (long) RANURAS_POR_REGION * TAMANO_RANURA));
+        } catch(IOException e) {
+            throw new IllegalStateException("No se pudo ampliar el archivo de socios.", e);
+        }
+    }
+
+    /**
+     * Retorna la cantidad de socios que tienen una ranura en el archivo.
+     * @return El número de ranuras ocupadas.
+     */
+    public synchronized int darNumeroSocios() {
+        return ranurasUsadas - ranurasLibres.size();
+    }
+
+    /**
+     * Escribe en el disco los cambios hechos sobre las regiones mapeadas.
+     * post: El archivo refleja los fondos actuales.
+     */
+    public synchronized void sincronizar() {
+        for(MappedByteBuffer region : regiones) {
+            region.force();
+        }
+    }
+
+    /**
+     * Cierra el archivo. Las regiones mapeadas siguen siendo válidas hasta que se recolecten.
+     * @throws IOException Si no se puede cerrar el archivo.
+     */
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
+
+    /**
+     * Celda de fondos que vive en una ranura del archivo mapeado.
+     */
+    private static class Celda implements CeldaFondos {
+
+        /**
+         * Región mapeada donde está la ranura.
+         */
+        private final MappedByteBuffer region;
+
+        /**
+         * Posición donde empieza la ranura dentro de la región.
+         */
+        private final int inicio;
+
+        /**
+         * Número de la ranura en el archivo.
+         */
+        private final int ranura;
+
+        /**
+         * Crea la celda de la ranura dada.
+         * @param pRegion Región mapeada.
+         * @param pInicio Posición de la ranura en la región.
+         * @param pRanura Número de la ranura.
+         */
+        private Celda(MappedByteBuffer pRegion, int pInicio, int pRanura) {
+            region = pRegion;
+            inicio = pInicio;
+            ranura = pRanura;
+        }
+
+        public long leer() {
+            return (long) LONG_MAPEADO.getVolatile(region, inicio + POS_FONDOS);
+        }
+
+        public void escribir(long pFondos) {
+            LONG_MAPEADO.setVolatile(region, inicio + POS_FONDOS, pFondos);
+        }
+    }
+}
@@ -0,0 +1,631 @@
+package club.Persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import club.Bitacora;
+import club.Club;
+import club.Excepciones.RechazoException;
+import club.Excepciones.SocioNoExisteException;
+import club.Socio.Tipo;
+
+/**
+ * Bitácora binaria de solo escritura al final, guardada en segmentos de archivo.
+ * Cada modificación del club se guarda como un registro con el formato
+ * [longitud:int][tipo:byte][secuencia:long][datos][crc32:int], donde la longitud y el crc
+ * cubren el tipo, la secuencia y los datos.
+ * Las anotaciones se acumulan en memoria y un hilo escritor las lleva al disco; todas las
+ * anotaciones que llegan mientras se sincroniza el disco se escriben juntas en la siguiente
+ * sincronización, de modo que muchos puntos de venta comparten un mismo fsync.
+ * La bitácora se abre y se recupera por medio de AlmacenClub.
+ */
+public class BitacoraArchivo implements Bitacora, Closeable {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Registro de afiliación: cédula, nombre y tipo.
+     */
+    final static byte AFILIACION = 1;
+
+    /**
+     * Registro de autorizado agregado: cédula y nombre del autorizado.
+     */
+    final static byte AUTORIZADO_AGREGADO = 2;
+
+    /**
+     * Registro de autorizado eliminado: cédula y nombre del autorizado.
+     */
+    final static byte AUTORIZADO_ELIMINADO = 3;
+
+    /**
+     * Registro de consumo: cédula, nombre del cliente, concepto y valor.
+     */
+    final static byte CONSUMO = 4;
+
+    /**
+     * Registro de aumento de fondos: cédula y valor.
+     */
+    final static byte AUMENTO_FONDOS = 6;
+
+    /**
+     * Registro de pago: cédula e identificador de la factura.
+     */
+    final static byte PAGO_ID = 7;
+
+    /**
+     * Registro de eliminación de un socio: cédula.
+     */
+    final static byte ELIMINACION = 8;
+
+    /**
+     * Longitud máxima del cuerpo de un registro: tres cadenas de hasta 65535 bytes y los campos fijos.
+     */
+    private final static int LONGITUD_MAXIMA = 1 + 8 + 3 * (2 + 65535) + 8;
+
+    /**
+     * Capacidad inicial, en bytes, de los buffers de anotaciones.
+     */
+    private final static int CAPACIDAD_INICIAL = 64 * 1024;
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Canal del segmento actual de la bitácora, posicionado al final.
+     * Solo lo usa el hilo escritor.
+     */
+    private FileChannel canal;
+
+    /**
+     * Canal del segmento al que se debe pasar después del próximo lote, null si no se ha pedido rotar.
+     */
+    private FileChannel canalSiguiente;
+
+    /**
+     * Candado que protege los buffers y las secuencias.
+     */
+    private final ReentrantLock candado;
+
+    /**
+     * Condición que se señala cuando hay anotaciones por escribir o la bitácora se cierra.
+     */
+    private final Condition hayPendientes;
+
+    /**
+     * Condición que se señala cuando avanza la secuencia durable.
+     */
+    private final Condition avanzoDurable;
+
+    /**
+     * Condición que se señala cuando el hilo escritor pasa a un nuevo segmento.
+     */
+    private final Condition rotoSegmento;
+
+    /**
+     * Anotaciones que aún no se han entregado al hilo escritor.
+     */
+    private ByteBuffer pendientes;
+
+    /**
+     * Buffer que está escribiendo el hilo escritor.
+     */
+    private ByteBuffer enEscritura;
+
+    /**
+     * Suma de verificación que se reutiliza para cada registro.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Última secuencia asignada a una anotación.
+     */
+    private long ultimaSecuencia;
+
+    /**
+     * Mayor secuencia que ya está sincronizada en el disco.
+     */
+    private long secuenciaDurable;
+
+    /**
+     * Indica si la bitácora fue cerrada.
+     */
+    private volatile boolean cerrada;
+
+    /**
+     * Error de escritura que dejó la bitácora inutilizable, null si no ha habido errores.
+     */
+    private volatile IOException falla;
+
+    /**
+     * Hilo que escribe y sincroniza las anotaciones.
+     */
+    private final Thread escritor;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea la bitácora sobre un canal ya posicionado al final de los registros válidos.
+     * post: El hilo escritor está corriendo.
+     * @param pCanal Canal del archivo. pCanal != null.
+     * @param pUltimaSecuencia Secuencia del último registro que ya tiene el archivo.
+     */
+    BitacoraArchivo(FileChannel pCanal, long pUltimaSecuencia) {
+        canal = pCanal;
+        candado = new ReentrantLock();
+        hayPendientes = candado.newCondition();
+        avanzoDurable = candado.newCondition();
+        rotoSegmento = candado.newCondition();
+        pendientes = ByteBuffer.allocate(CAPACIDAD_INICIAL);
+        enEscritura = ByteBuffer.allocate(CAPACIDAD_INICIAL);
+        crc = new CRC32();
+        ultimaSecuencia = pUltimaSecuencia;
+        secuenciaDurable = pUltimaSecuencia;
+
+        escritor = new Thread(this::escribir, "escritor-bitacora");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Aplica al club los registros válidos del flujo dado que no estén ya reflejados en él.
+     * Un registro ya está reflejado si su secuencia no supera pDesde, o si no supera la
+     * secuencia con la que se guardó su socio en la instantánea.
+     * @param pEntrada Flujo con los registros. pEntrada != null.
+     * @param pClub Club sobre el que se aplican. pClub != null.
+     * @param pDesde Secuencia hasta la cual todos los registros ya están reflejados.
+     * @param pSecuenciasSocios Secuencia con la que se guardó cada socio, por cédula. pSecuenciasSocios != null.
+     * @return Arreglo con la secuencia del último registro leído, la cantidad de bytes válidos,
+     * la cantidad de registros aplicados y la cantidad de registros omitidos porque el club los rechazó.
+     * @throws IOException Si no se puede leer el flujo.
+     */
+    static long[] reproducir(InputStream pEntrada, Club pClub, long pDesde,
+                             Map<String, Long> pSecuenciasSocios) throws IOException {
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(pEntrada));
+        CRC32 verificacion = new CRC32();
+        long ultimaSecuencia = 0;
+        long bytesValidos = 0;
+        long aplicados = 0;
+        long omitidos = 0;
+
+        while(true) {
+            byte[] cuerpo;
+            try {
+                int longitud = entrada.readInt();
+                if(longitud <= 0 || longitud > LONGITUD_MAXIMA) {
+                    break;
+                }
+                cuerpo = new byte[longitud];
+                entrada.readFully(cuerpo);
+                verificacion.reset();
+                verificacion.update(cuerpo);
+                if(entrada.readInt() != (int) verificacion.getValue()) {
+                    break;
+                }
+            } catch(EOFException e) {
+                break;
+            }
+
+            ByteBuffer registro = ByteBuffer.wrap(cuerpo);
+            byte tipo = registro.get();
+            ultimaSecuencia = registro.getLong();
+            String cedula = leerCadena(registro);
+            Long secuenciaSocio = pSecuenciasSocios.get(cedula);
+
+            if(ultimaSecuencia > pDesde && (secuenciaSocio == null || ultimaSecuencia > secuenciaSocio)) {
+                try {
+                    aplicar(tipo, cedula, registro, pClub);
+                    aplicados++;
+                } catch(SocioNoExisteException e) {
+                    // El socio se eliminó antes de tomar la instantánea, así que no está en ella;
+                    // sus registros posteriores a la instantánea ya no tienen efecto
+                } catch(RechazoException e) {
+                    // Cada registro es una modificación que el club ya aceptó; solo se rechaza si cambió el
+                    // entorno desde que se anotó, por ejemplo un límite de socios VIP menor.
+                    // Se omite para recuperar el resto de la bitácora
+                    omitidos++;
+                }
+            }
+            bytesValidos += 4 + cuerpo.length + 4;
+        }
+
+        return new long[] {ultimaSecuencia, bytesValidos, aplicados, omitidos};
+    }
+
+    /**
+     * Aplica un registro sobre el club.
+     * @param pTipo Tipo del registro.
+     * @param pCedula Cédula del socio del registro.
+     * @param pDatos Buffer posicionado después de la cédula.
+     * @param pClub Club sobre el que se aplica.
+     */
+    private static void aplicar(byte pTipo, String pCedula, ByteBuffer pDatos, Club pClub) {
+        switch(pTipo) {
+            case AFILIACION:
+                String nombre = leerCadena(pDatos);
+                pClub.afiliarSocio(pCedula, nombre, Tipo.values()[pDatos.get()]);
+                break;
+            case AUTORIZADO_AGREGADO:
+                pClub.agregarAutorizadoSocio(pCedula, leerCadena(pDatos));
+                break;
+            case AUTORIZADO_ELIMINADO:
+                pClub.eliminarAutorizadoSocio(pCedula, leerCadena(pDatos));
+                break;
+            case CONSUMO:
+                String cliente = leerCadena(pDatos);
+                String concepto = leerCadena(pDatos);
+                pClub.registrarConsumoCentavos(pCedula, cliente, concepto, pDatos.getLong());
+                break;
+            case PAGO_ID:
+                pClub.pagarFacturaSocioPorId(pCedula, pDatos.getLong());
+                break;
+            case AUMENTO_FONDOS:
+                pClub.aumentarFondosSocioCentavos(pCedula, pDatos.getLong());
+                break;
+            case ELIMINACION:
+                pClub.eliminarSocio(pCedula);
+                break;
+            default:
+                throw new IllegalStateException("Tipo de registro desconocido en la bitácora: " + pTipo);
+        }
+    }
+
+    /**
+     * Lee una cadena guardada como [longitud:short][bytes UTF-8].
+     * @param pBuffer Buffer posicionado al inicio de la cadena.
+     * @return La cadena leída.
+     */
+    static String leerCadena(ByteBuffer pBuffer) {
+        byte[] bytes = new byte[pBuffer.getShort() & 0xFFFF];
+        pBuffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public long anotarAfiliacion(String pCedula, String pNombre, Tipo pTipo) {
+        byte[] cedula = codificar(pCedula);
+        byte[] nombre = codificar(pNombre);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(AFILIACION, 2 + cedula.length + 2 + nombre.length + 1);
+            escribirCadena(cedula);
+            escribirCadena(nombre);
+            pendientes.put((byte) pTipo.ordinal());
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long anotarAutorizadoAgregado(String pCedula, String pNombreAutorizado) {
+        return anotarAutorizado(AUTORIZADO_AGREGADO, pCedula, pNombreAutorizado);
+    }
+
+    public long anotarAutorizadoEliminado(String pCedula, String pNombreAutorizado) {
+        return anotarAutorizado(AUTORIZADO_ELIMINADO, pCedula, pNombreAutorizado);
+    }
+
+    /**
+     * Anota un cambio en los autorizados de un socio.
+     * @param pTipo AUTORIZADO_AGREGADO o AUTORIZADO_ELIMINADO.
+     * @param pCedula Cédula del socio.
+     * @param pNombreAutorizado Nombre del autorizado.
+     * @return La secuencia de la anotación.
+     */
+    private long anotarAutorizado(byte pTipo, String pCedula, String pNombreAutorizado) {
+        byte[] cedula = codificar(pCedula);
+        byte[] nombre = codificar(pNombreAutorizado);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(pTipo, 2 + cedula.length + 2 + nombre.length);
+            escribirCadena(cedula);
+            escribirCadena(nombre);
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long anotarConsumo(String pCedula, String pNombreCliente, String pConcepto, long pValor) {
+        byte[] cedula = codificar(pCedula);
+        byte[] cliente = codificar(pNombreCliente);
+        byte[] concepto = codificar(pConcepto);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(CONSUMO,
+                    2 + cedula.length + 2 + cliente.length + 2 + concepto.length + 8);
+            escribirCadena(cedula);
+            escribirCadena(cliente);
+            escribirCadena(concepto);
+            pendientes.putLong(pValor);
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long anotarPago(String pCedula, long pIdFactura) {
+        byte[] cedula = codificar(pCedula);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(PAGO_ID, 2 + cedula.length + 8);
+            escribirCadena(cedula);
+            pendientes.putLong(pIdFactura);
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long anotarAumentoFondos(String pCedula, long pValor) {
+        byte[] cedula = codificar(pCedula);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(AUMENTO_FONDOS, 2 + cedula.length + 8);
+            escribirCadena(cedula);
+            pendientes.putLong(pValor);
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long anotarEliminacion(String pCedula) {
+        byte[] cedula = codificar(pCedula);
+        candado.lock();
+        try {
+            int inicio = iniciarRegistro(ELIMINACION, 2 + cedula.length);
+            escribirCadena(cedula);
+            return terminarRegistro(inicio);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Reserva espacio para un registro y escribe su encabezado.
+     * pre: El hilo actual tiene el candado.
+     * @param pTipo Tipo del registro.
+     * @param pLongitudDatos Cantidad de bytes de los datos del registro.
+     * @return La posición del buffer donde empieza el registro.
+     */
+    private int iniciarRegistro(byte pTipo, int pLongitudDatos) {
+        revisarEscritura();
+
+        int longitudCuerpo = 1 + 8 + pLongitudDatos;
+        asegurarCapacidad(4 + longitudCuerpo + 4);
+
+        int inicio = pendientes.position();
+        pendientes.putInt(longitudCuerpo);
+        pendientes.put(pTipo);
+        pendientes.putLong(ultimaSecuencia + 1);
+        return inicio;
+    }
+
+    /**
+     * Escribe el crc del registro que empieza en la posición dada y le asigna su secuencia.
+     * pre: El hilo actual tiene el candado y se escribieron todos los datos del registro.
+     * @param pInicio Posición del buffer donde empieza el registro.
+     * @return La secuencia del registro.
+     */
+    private long terminarRegistro(int pInicio) {
+        ByteBuffer cuerpo = pendientes.duplicate();
+        cuerpo.position(pInicio + 4);
+        cuerpo.limit(pendientes.position());
+        crc.reset();
+        crc.update(cuerpo);
+        pendientes.putInt((int) crc.getValue());
+
+        ultimaSecuencia++;
+        hayPendientes.signal();
+        return ultimaSecuencia;
+    }
+
+    /**
+     * Codifica una cadena en UTF-8 para escribirla en un registro.
+     * El club rechaza los textos demasiado largos antes de modificarse, así que esto solo falla por un error de programación.
+     * @param pCadena Cadena a codificar.
+     * @return Los bytes UTF-8 de la cadena.
+     * @throws IllegalArgumentException Si la cadena ocupa más de 65535 bytes.
+     */
+    private static byte[] codificar(String pCadena) {
+        byte[] bytes = pCadena.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("La cadena ocupa " + bytes.length + " bytes; el máximo es 65535.");
+        }
+        return bytes;
+    }
+
+    /**
+     * Escribe una cadena como [longitud:short][bytes].
+     * @param pBytes Bytes UTF-8 de la cadena. pBytes.length <= 65535.
+     */
+    private void escribirCadena(byte[] pBytes) {
+        pendientes.putShort((short) pBytes.length);
+        pendientes.put(pBytes);
+    }
+
+    /**
+     * Hace crecer el buffer de pendientes si no tiene espacio para la cantidad de bytes dada.
+     * pre: El hilo actual tiene el candado.
+     * @param pBytes Cantidad de bytes que se van a escribir.
+     */
+    private void asegurarCapacidad(int pBytes) {
+        if(pendientes.remaining() < pBytes) {
+            int capacidad = Math.max(pendientes.capacity() * 2, pendientes.position() + pBytes);
+            ByteBuffer nuevo = ByteBuffer.allocate(capacidad);
+            pendientes.flip();
+            nuevo.put(pendientes);
+            pendientes = nuevo;
+        }
+    }
+
+    public void revisarEscritura() {
+        if(cerrada) {
+            throw new IllegalStateException("La bitácora está cerrada.");
+        }
+        if(falla != null) {
+            throw new IllegalStateException("No se pudo escribir la bitácora.", falla);
+        }
+    }
+
+    public void esperarDurable(long pSecuencia) {
+        candado.lock();
+        try {
+            while(secuenciaDurable < pSecuencia && falla == null) {
+                avanzoDurable.awaitUninterruptibly();
+            }
+            if(secuenciaDurable < pSecuencia) {
+                throw new IllegalStateException("No se pudo escribir la bitácora.", falla);
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Retorna la secuencia de la última anotación.
+     * Si se consulta con el candado de un socio, ninguna anotación posterior de ese socio
+     * puede tener una secuencia menor o igual a la retornada.
+     * @return La última secuencia asignada.
+     */
+    public long darUltimaSecuencia() {
+        candado.lock();
+        try {
+            return ultimaSecuencia;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Pasa a escribir en un nuevo segmento. Las anotaciones que ya estaban pendientes se
+     * escriben y sincronizan en el segmento anterior, que queda cerrado.
+     * post: Todas las anotaciones del segmento anterior son durables.
+     * @param pCanal Canal del nuevo segmento, vacío. pCanal != null.
+     * @throws IOException Si no se pudo terminar de escribir el segmento anterior.
+     */
+    void rotar(FileChannel pCanal) throws IOException {
+        candado.lock();
+        try {
+            if(cerrada) {
+                throw new IllegalStateException("La bitácora está cerrada.");
+            }
+            canalSiguiente = pCanal;
+            hayPendientes.signal();
+            while(canalSiguiente != null && falla == null) {
+                rotoSegmento.awaitUninterruptibly();
+            }
+            if(falla != null) {
+                throw falla;
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Ciclo del hilo escritor: toma todas las anotaciones pendientes, las escribe y
+     * sincroniza el archivo, y despierta a quienes esperaban por ellas.
+     * Si se pidió rotar, después del lote cierra el segmento y pasa al siguiente.
+     */
+    private void escribir() {
+        while(true) {
+            long hasta;
+            ByteBuffer lote;
+            FileChannel siguiente;
+
+            candado.lock();
+            try {
+                while(pendientes.position() == 0 && canalSiguiente == null && !cerrada) {
+                    hayPendientes.awaitUninterruptibly();
+                }
+                if(pendientes.position() == 0 && canalSiguiente == null) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = enEscritura;
+                enEscritura = lote;
+                hasta = ultimaSecuencia;
+                siguiente = canalSiguiente;
+            } finally {
+                candado.unlock();
+            }
+
+            try {
+                lote.flip();
+                while(lote.hasRemaining()) {
+                    canal.write(lote);
+                }
+                canal.force(false);
+                lote.clear();
+                if(siguiente != null) {
+                    canal.close();
+                    canal = siguiente;
+                }
+            } catch(IOException e) {
+                candado.lock();
+                try {
+                    falla = e;
+                    avanzoDurable.signalAll();
+                    rotoSegmento.signalAll();
+                } finally {
+                    candado.unlock();
+                }
+                return;
+            }
+
+            candado.lock();
+            try {
+                secuenciaDurable = hasta;
+                avanzoDurable.signalAll();
+                if(siguiente != null) {
+                    canalSiguiente = null;
+                    rotoSegmento.signalAll();
+                }
+            } finally {
+                candado.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cierra la bitácora después de escribir todas las anotaciones pendientes.
+     * post: El archivo está sincronizado y cerrado.
+     * @throws IOException Si no se puede cerrar el archivo.
+     */
+    public void close() throws IOException {
+        candado.lock();
+        try {
+            cerrada = true;
+            hayPendientes.signal();
+        } finally {
+            candado.unlock();
+        }
+
+        try {
+            escritor.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+}
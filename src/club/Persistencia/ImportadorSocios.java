@@ -0,0 +1,274 @@
+package club.Persistencia;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import club.Afiliacion;
+import club.Club;
+import club.Internador;
+import club.Resultado;
+import club.Socio.Tipo;
+
+/**
+ * Carga masiva de socios desde un archivo CSV.
+ * Cada fila tiene el formato cedula,nombre,tipo[,autorizado...]; la primera fila puede ser un
+ * encabezado que empiece por "cedula". Los campos pueden ir entre comillas dobles, y dentro de
+ * ellas una comilla se escribe doble. El archivo se lee por bloques, así que la memoria usada
+ * no depende de su tamaño, y cada bloque se afilia con una sola espera de la bitácora.
+ * Las filas rechazadas se escriben en un archivo aparte con el número de línea y el motivo; las
+ * que tienen errores de formato o datos que el club no puede guardar (por ejemplo un nombre de más
+ * de Club.MAXIMO_BYTES_TEXTO bytes) aparecen antes que las rechazadas por las reglas del club de su bloque.
+ */
+public class ImportadorSocios {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de filas que se afilian juntas.
+     */
+    private final static int TAMANO_BLOQUE = 1000;
+
+    /**
+     * Encabezado del archivo de rechazos.
+     */
+    private final static String ENCABEZADO_RECHAZOS = "linea,motivo,registro";
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Club donde se afilian los socios.
+     */
+    private final Club club;
+
+    /**
+     * Cantidad de socios afiliados en la última importación.
+     */
+    private long aceptados;
+
+    /**
+     * Cantidad de filas rechazadas en la última importación.
+     */
+    private long rechazados;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Crea un importador que afilia los socios en el club dado.
+     * @param pClub Club donde se afilian los socios. pClub != null.
+     */
+    public ImportadorSocios(Club pClub) {
+        club = pClub;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Afilia en el club los socios del archivo dado. Las reglas de afiliación (cédula repetida,
+     * límite de socios VIP, autorizados válidos) se aplican a todo el archivo, incluidas las filas
+     * anteriores del mismo archivo.
+     * post: Se afiliaron las filas válidas y las demás quedaron en el archivo de rechazos.
+     * @param pArchivo Archivo CSV con los socios. pArchivo != null.
+     * @param pRechazos Archivo donde se escriben las filas rechazadas; se reemplaza si existe. pRechazos != null.
+     * @throws IOException Si no se puede leer el archivo o escribir los rechazos.
+     */
+    public void importar(Path pArchivo, Path pRechazos) throws IOException {
+        aceptados = 0;
+        rechazados = 0;
+
+        // Una primera pasada solo cuenta las filas para reservar el espacio de una vez
+        long filas;
+        try(BufferedReader lector = Files.newBufferedReader(pArchivo, StandardCharsets.UTF_8)) {
+            filas = lector.lines().count();
+        }
+        club.asegurarCapacidad((int) Math.min(Integer.MAX_VALUE, club.darSocios().size() + filas));
+
+        try(BufferedReader lector = Files.newBufferedReader(pArchivo, StandardCharsets.UTF_8);
+            BufferedWriter rechazos = Files.newBufferedWriter(pRechazos, StandardCharsets.UTF_8)) {
+
+            rechazos.write(ENCABEZADO_RECHAZOS);
+            rechazos.newLine();
+
+            ArrayList<Afiliacion> bloque = new ArrayList<Afiliacion>(TAMANO_BLOQUE);
+            ArrayList<String> registros = new ArrayList<String>(TAMANO_BLOQUE);
+            ArrayList<Long> lineas = new ArrayList<Long>(TAMANO_BLOQUE);
+
+            String registro;
+            long linea = 0;
+            while((registro = lector.readLine()) != null) {
+                linea++;
+                if(registro.isBlank()) {
+                    continue;
+                }
+
+                ArrayList<String> campos = separarCampos(registro);
+                if(linea == 1 && campos.get(0).equalsIgnoreCase("cedula")) {
+                    continue;
+                }
+
+                String error = validarCampos(campos);
+                if(error != null) {
+                    rechazar(rechazos, linea, error, registro);
+                    continue;
+                }
+
+                ArrayList<String> autorizados = new ArrayList<String>(campos.size() - 3);
+                for(int i = 3; i < campos.size(); i++) {
+                    autorizados.add(Internador.COMPARTIDO.internar(campos.get(i)));
+                }
+                error = club.revisarAfiliacion(campos.get(0), campos.get(1), autorizados);
+                if(error != null) {
+                    rechazar(rechazos, linea, error, registro);
+                    continue;
+                }
+                bloque.add(new Afiliacion(campos.get(0), campos.get(1),
+                        Tipo.valueOf(campos.get(2).toUpperCase()), autorizados));
+                registros.add(registro);
+                lineas.add(linea);
+
+                if(bloque.size() == TAMANO_BLOQUE) {
+                    afiliarBloque(bloque, registros, lineas, rechazos);
+                }
+            }
+            afiliarBloque(bloque, registros, lineas, rechazos);
+        }
+    }
+
+    /**
+     * Retorna la cantidad de socios afiliados en la última importación.
+     * @return El número de filas aceptadas.
+     */
+    public long darAceptados() {
+        return aceptados;
+    }
+
+    /**
+     * Retorna la cantidad de filas rechazadas en la última importación.
+     * @return El número de filas rechazadas.
+     */
+    public long darRechazados() {
+        return rechazados;
+    }
+
+    /**
+     * Afilia las filas acumuladas y escribe las que fueron rechazadas.
+     * post: Las listas quedan vacías.
+     * @param pBloque Afiliaciones a realizar.
+     * @param pRegistros Texto de la fila de cada afiliación.
+     * @param pLineas Número de línea de cada afiliación.
+     * @param pRechazos Archivo de rechazos.
+     * @throws IOException Si no se pueden escribir los rechazos.
+     */
+    private void afiliarBloque(ArrayList<Afiliacion> pBloque, ArrayList<String> pRegistros,
+                               ArrayList<Long> pLineas, BufferedWriter pRechazos) throws IOException {
+        ArrayList<Resultado> resultados = club.afiliarSocios(pBloque);
+        for(int i = 0; i < resultados.size(); i++) {
+            Resultado resultado = resultados.get(i);
+            if(resultado == Resultado.EXITO) {
+                aceptados++;
+            } else {
+                rechazar(pRechazos, pLineas.get(i), resultado.darDescripcion(), pRegistros.get(i));
+            }
+        }
+        pBloque.clear();
+        pRegistros.clear();
+        pLineas.clear();
+    }
+
+    /**
+     * Escribe una fila rechazada en el archivo de rechazos.
+     * @param pRechazos Archivo de rechazos.
+     * @param pLinea Número de línea de la fila en el archivo original.
+     * @param pMotivo Motivo del rechazo.
+     * @param pRegistro Texto de la fila.
+     * @throws IOException Si no se puede escribir.
+     */
+    private void rechazar(BufferedWriter pRechazos, long pLinea, String pMotivo, String pRegistro)
+            throws IOException {
+        rechazados++;
+        pRechazos.write(Long.toString(pLinea));
+        pRechazos.write(',');
+        pRechazos.write(citar(pMotivo));
+        pRechazos.write(',');
+        pRechazos.write(citar(pRegistro));
+        pRechazos.newLine();
+    }
+
+    /**
+     * Revisa que los campos de una fila tengan el formato esperado.
+     * @param pCampos Campos de la fila.
+     * @return La descripción del error, o null si la fila es válida.
+     */
+    private static String validarCampos(ArrayList<String> pCampos) {
+        if(pCampos.size() < 3) {
+            return "La fila debe tener cédula, nombre y tipo.";
+        }
+        if(pCampos.get(0).isEmpty() || pCampos.get(1).isEmpty()) {
+            return "La cédula y el nombre no pueden estar vacíos.";
+        }
+        String tipo = pCampos.get(2).toUpperCase();
+        if(!tipo.equals(Tipo.REGULAR.name()) && !tipo.equals(Tipo.VIP.name())) {
+            return "Tipo de subscripción desconocido: " + pCampos.get(2);
+        }
+        for(int i = 3; i < pCampos.size(); i++) {
+            if(pCampos.get(i).isEmpty()) {
+                return "El nombre de un autorizado no puede estar vacío.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Separa una fila CSV en sus campos, quitando las comillas y los espacios alrededor de cada campo.
+     * @param pRegistro Texto de la fila. pRegistro != null.
+     * @return Lista de campos, con al menos un elemento.
+     */
+    private static ArrayList<String> separarCampos(String pRegistro) {
+        ArrayList<String> campos = new ArrayList<String>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        for(int i = 0; i < pRegistro.length(); i++) {
+            char c = pRegistro.charAt(i);
+            if(entreComillas) {
+                if(c == '"' && i + 1 < pRegistro.length() && pRegistro.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if(c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if(c == '"') {
+                entreComillas = true;
+            } else if(c == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Encierra un texto entre comillas dobles para escribirlo como un campo CSV.
+     * @param pTexto Texto a citar.
+     * @return El texto entre comillas, con sus comillas internas duplicadas.
+     */
+    private static String citar(String pTexto) {
+        return '"' + pTexto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,210 @@
+package club.Persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import club.Club;
+import club.Factura;
+import club.Internador;
+import club.Socio;
+import club.Socio.Tipo;
+
+/**
+ * Instantánea binaria con el estado completo del club.
+ * El formato es [mágico:int][versión:int][desde:long], luego cada socio precedido por un byte 1, con
+ * su cédula, nombre, tipo, fondos, secuencia, siguiente identificador de factura, autorizados y facturas
+ * (cada una con su identificador), un byte 0 después del último socio y al final un crc32 de todo lo
+ * anterior. Como los socios se marcan uno a uno, los que se eliminan mientras se toma la instantánea
+ * se pueden omitir sin conocer de antemano cuántos quedan.
+ * La instantánea se toma socio por socio, bloqueando cada uno solo mientras se copia su estado,
+ * de modo que los puntos de venta siguen trabajando mientras se escribe.
+ */
+class Instantanea {
+
+    // -----------------------------------------------------------------
+    // Constantes
+    // -----------------------------------------------------------------
+
+    /**
+     * Número con el que empieza todo archivo de instantánea.
+     */
+    private final static int MAGICO = 0x434C5542;
+
+    /**
+     * Versión del formato de la instantánea.
+     */
+    private final static int VERSION = 3;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * La clase solo tiene métodos estáticos.
+     */
+    private Instantanea() {
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Escribe una instantánea del club en el archivo dado, reemplazándolo de forma atómica.
+     * Junto con cada socio se guarda la última secuencia de la bitácora en el momento de copiarlo;
+     * todo registro de ese socio con una secuencia mayor no está reflejado en la instantánea.
+     * post: El archivo contiene la instantánea y tanto él como su directorio están sincronizados en el disco.
+     * @param pDestino Archivo de la instantánea. pDestino != null.
+     * @param pClub Club a guardar. pClub != null.
+     * @param pBitacora Bitácora del club. pBitacora != null.
+     * @throws IOException Si no se pudo escribir el archivo.
+     */
+    static void escribir(Path pDestino, Club pClub, BitacoraArchivo pBitacora) throws IOException {
+        Path temporal = pDestino.resolveSibling(pDestino.getFileName() + ".tmp");
+        long desde = pBitacora.darUltimaSecuencia();
+        ArrayList<Socio> socios = pClub.darSocios();
+
+        try(FileOutputStream archivo = new FileOutputStream(temporal.toFile())) {
+            CheckedOutputStream verificado = new CheckedOutputStream(new BufferedOutputStream(archivo), new CRC32());
+            DataOutputStream salida = new DataOutputStream(verificado);
+
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(desde);
+
+            for(Socio socio : socios) {
+                long fondos;
+                long secuencia;
+                long siguienteIdFactura;
+                ArrayList<String> autorizados;
+                ArrayList<Factura> facturas;
+                synchronized(socio) {
+                    if(socio.estaEliminado()) {
+                        continue;
+                    }
+                    fondos = socio.darFondosCentavos();
+                    autorizados = socio.darAutorizados();
+                    facturas = socio.darFacturas();
+                    siguienteIdFactura = socio.darSiguienteIdFactura();
+                    secuencia = pBitacora.darUltimaSecuencia();
+                }
+
+                salida.writeByte(1);
+                salida.writeUTF(socio.darCedula());
+                salida.writeUTF(socio.darNombre());
+                salida.writeByte(socio.darTipo().ordinal());
+                salida.writeLong(fondos);
+                salida.writeLong(secuencia);
+                salida.writeLong(siguienteIdFactura);
+                salida.writeInt(autorizados.size());
+                for(String autorizado : autorizados) {
+                    salida.writeUTF(autorizado);
+                }
+                salida.writeInt(facturas.size());
+                for(Factura factura : facturas) {
+                    salida.writeLong(factura.darId());
+                    salida.writeUTF(factura.darNombre());
+                    salida.writeUTF(factura.darConcepto());
+                    salida.writeLong(factura.darValorCentavos());
+                }
+            }
+
+            salida.writeByte(0);
+            salida.flush();
+            new DataOutputStream(archivo).writeInt((int) verificado.getChecksum().getValue());
+            archivo.getFD().sync();
+        }
+
+        Files.move(temporal, pDestino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio(pDestino.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Sincroniza en el disco la entrada del directorio dado, para que un cambio de nombre sobreviva
+     * a una caída. Sin esto, borrar los segmentos viejos de la bitácora después de mover la instantánea
+     * podría dejar el disco sin la instantánea nueva y sin los registros que ella reemplaza.
+     * En Windows los directorios no se pueden abrir y el cambio de nombre ya es durable, así que no hace nada.
+     * @param pDirectorio Directorio a sincronizar. pDirectorio != null.
+     * @throws IOException Si no se pudo sincronizar el directorio.
+     */
+    static void sincronizarDirectorio(Path pDirectorio) throws IOException {
+        if(System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try(FileChannel directorio = FileChannel.open(pDirectorio, StandardOpenOption.READ)) {
+            directorio.force(true);
+        }
+    }
+
+    /**
+     * Lee la instantánea del archivo dado e incorpora sus socios al club.
+     * pre: El club está vacío.
+     * post: El club tiene los socios de la instantánea y pSecuencias la secuencia de cada uno.
+     * @param pOrigen Archivo de la instantánea. pOrigen != null.
+     * @param pClub Club donde se incorporan los socios. pClub != null.
+     * @param pSecuencias Mapa donde se guarda la secuencia de cada socio, por cédula. pSecuencias != null.
+     * @return La secuencia hasta la cual todos los registros de la bitácora están reflejados.
+     * @throws IOException Si no se puede leer el archivo o está dañado.
+     */
+    static long leer(Path pOrigen, Club pClub, Map<String, Long> pSecuencias) throws IOException {
+        try(BufferedInputStream archivo = new BufferedInputStream(Files.newInputStream(pOrigen))) {
+            CheckedInputStream verificado = new CheckedInputStream(archivo, new CRC32());
+            DataInputStream entrada = new DataInputStream(verificado);
+
+            if(entrada.readInt() != MAGICO) {
+                throw new IOException("El archivo no es una instantánea del club: " + pOrigen);
+            }
+            int version = entrada.readInt();
+            if(version != VERSION) {
+                throw new IOException("Versión de instantánea desconocida " + version + ": " + pOrigen);
+            }
+            long desde = entrada.readLong();
+
+            while(entrada.readByte() != 0) {
+                String cedula = entrada.readUTF();
+                String nombre = entrada.readUTF();
+                Tipo tipo = Tipo.values()[entrada.readByte()];
+                long fondos = entrada.readLong();
+                long secuencia = entrada.readLong();
+                long siguienteIdFactura = entrada.readLong();
+
+                int numAutorizados = entrada.readInt();
+                ArrayList<String> autorizados = new ArrayList<String>(numAutorizados);
+                for(int j = 0; j < numAutorizados; j++) {
+                    autorizados.add(Internador.COMPARTIDO.internar(entrada.readUTF()));
+                }
+
+                int numFacturas = entrada.readInt();
+                ArrayList<Factura> facturas = new ArrayList<Factura>(numFacturas);
+                for(int j = 0; j < numFacturas; j++) {
+                    long id = entrada.readLong();
+                    String cliente = Internador.COMPARTIDO.internar(entrada.readUTF());
+                    String concepto = Internador.COMPARTIDO.internar(entrada.readUTF());
+                    facturas.add(new Factura(id, cliente, concepto, entrada.readLong()));
+                }
+
+                pClub.restaurarSocio(cedula, nombre, tipo, fondos, autorizados, facturas, siguienteIdFactura);
+                pSecuencias.put(cedula, secuencia);
+            }
+
+            int esperado = (int) verificado.getChecksum().getValue();
+            if(new DataInputStream(archivo).readInt() != esperado) {
+                throw new IOException("La instantánea está dañada: " + pOrigen);
+            }
+            return desde;
+        }
+    }
+}
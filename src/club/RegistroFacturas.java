@@ -0,0 +1,63 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Facturas pendientes de un socio, en el orden en que se registraron.
+ * Los identificadores se agregan en orden creciente. Las implementaciones no son seguras
+ * para varios hilos: el socio las usa siempre con su propio candado.
+ */
+interface RegistroFacturas {
+
+    /**
+     * Agrega una factura al final del registro.
+     * pre: pId es mayor que el de todas las facturas agregadas antes.
+     * @param pId Identificador de la factura.
+     * @param pNombre Nombre de quien hizo el consumo.
+     * @param pConcepto Concepto del consumo.
+     * @param pValor Valor del consumo en centavos.
+     */
+    void agregar(long pId, String pNombre, String pConcepto, long pValor);
+
+    /**
+     * Busca la factura con el identificador dado.
+     * @param pId Identificador de la factura.
+     * @return La factura, o null si no está. Puede ser una vista que solo es válida hasta la siguiente modificación.
+     */
+    Factura buscar(long pId);
+
+    /**
+     * Quita la factura con el identificador dado sin mover las demás.
+     * pre: La factura está en el registro.
+     * @param pId Identificador de la factura.
+     */
+    void quitar(long pId);
+
+    /**
+     * Retorna el identificador de la factura que está en la posición dada.
+     * pre: 0 <= pPosicion < darNumero().
+     * @param pPosicion Posición de la factura, contando desde la más antigua.
+     * @return El identificador de la factura.
+     */
+    long darIdEnPosicion(int pPosicion);
+
+    /**
+     * Retorna la cantidad de facturas del registro.
+     * @return El número de facturas.
+     */
+    int darNumero();
+
+    /**
+     * Recorre las facturas en orden. La factura que recibe la acción puede ser una vista
+     * reutilizada, así que no se debe guardar.
+     * @param pAccion Acción a aplicar a cada factura.
+     */
+    void recorrer(Consumer<Factura> pAccion);
+
+    /**
+     * Retorna una copia de las facturas, independiente del registro.
+     * @return Lista con las facturas, en orden.
+     */
+    ArrayList<Factura> copiar();
+}
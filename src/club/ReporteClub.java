@@ -0,0 +1,335 @@
+package club;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import club.Socio.Tipo;
+
+/**
+ * Cifras de todo el club tomadas en un momento dado: total pendiente, fondos y utilización de fondos
+ * por tipo de subscripción, los socios con más consumos pendientes y el total pendiente por concepto.
+ * Cada socio se lee de forma consistente con su candado, pero los socios se leen en momentos distintos,
+ * así que el reporte no corresponde a un único instante si el club se modifica mientras se genera.
+ */
+public class ReporteClub {
+
+    // -----------------------------------------------------------------
+    // Atributos
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad de socios por tipo.
+     */
+    private final EnumMap<Tipo, Integer> sociosPorTipo;
+
+    /**
+     * Total pendiente en centavos por tipo.
+     */
+    private final EnumMap<Tipo, Long> pendientePorTipo;
+
+    /**
+     * Fondos en centavos por tipo.
+     */
+    private final EnumMap<Tipo, Long> fondosPorTipo;
+
+    /**
+     * Socios con más consumos pendientes, de mayor a menor.
+     */
+    private final ArrayList<Consumidor> mayoresConsumidores;
+
+    /**
+     * Total pendiente en centavos por concepto.
+     */
+    private final HashMap<String, Long> pendientePorConcepto;
+
+    // -----------------------------------------------------------------
+    // Constructor
+    // -----------------------------------------------------------------
+
+    /**
+     * Construye el reporte con las cifras acumuladas.
+     * @param pAcumulador Cifras acumuladas de todos los socios. pAcumulador != null.
+     */
+    ReporteClub(Acumulador pAcumulador) {
+        sociosPorTipo = new EnumMap<Tipo, Integer>(Tipo.class);
+        pendientePorTipo = new EnumMap<Tipo, Long>(Tipo.class);
+        fondosPorTipo = new EnumMap<Tipo, Long>(Tipo.class);
+        for(Tipo tipo : Tipo.values()) {
+            sociosPorTipo.put(tipo, pAcumulador.socios[tipo.ordinal()]);
+            pendientePorTipo.put(tipo, pAcumulador.pendiente[tipo.ordinal()]);
+            fondosPorTipo.put(tipo, pAcumulador.fondos[tipo.ordinal()]);
+        }
+        mayoresConsumidores = new ArrayList<Consumidor>(pAcumulador.mayores);
+        Collections.sort(mayoresConsumidores, (a, b) -> Long.compare(b.total, a.total));
+        pendientePorConcepto = pAcumulador.porConcepto;
+    }
+
+    // -----------------------------------------------------------------
+    // Métodos
+    // -----------------------------------------------------------------
+
+    /**
+     * Retorna la cantidad de socios del tipo dado.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return El número de socios.
+     */
+    public int darNumeroSocios(Tipo pTipo) {
+        return sociosPorTipo.get(pTipo);
+    }
+
+    /**
+     * Retorna el total de las facturas pendientes de los socios del tipo dado.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return El total pendiente en centavos.
+     */
+    public long darTotalPendienteCentavos(Tipo pTipo) {
+        return pendientePorTipo.get(pTipo);
+    }
+
+    /**
+     * Retorna el total de las facturas pendientes de todo el club.
+     * @return El total pendiente en centavos.
+     */
+    public long darTotalPendienteCentavos() {
+        long total = 0;
+        for(long pendiente : pendientePorTipo.values()) {
+            total = Dinero.sumar(total, pendiente);
+        }
+        return total;
+    }
+
+    /**
+     * Retorna la suma de los fondos de los socios del tipo dado.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return Los fondos en centavos.
+     */
+    public long darFondosCentavos(Tipo pTipo) {
+        return fondosPorTipo.get(pTipo);
+    }
+
+    /**
+     * Retorna qué fracción del monto máximo de fondos tienen en promedio los socios del tipo dado.
+     * @param pTipo Tipo de subscripción. pTipo != null.
+     * @return La suma de los fondos dividida en la suma de los montos máximos, 0 si no hay socios del tipo.
+     */
+    public double darUtilizacionFondos(Tipo pTipo) {
+        int socios = sociosPorTipo.get(pTipo);
+        if(socios == 0) {
+            return 0;
+        }
+        long maximo = pTipo == Tipo.VIP ? Socio.MONTO_MAXIMO_VIP_CENTAVOS : Socio.MONTO_MAXIMO_REGULARES_CENTAVOS;
+        return (double) fondosPorTipo.get(pTipo) / ((double) maximo * socios);
+    }
+
+    /**
+     * Retorna los socios con más consumos pendientes.
+     * @return Lista de socios ordenada de mayor a menor total pendiente.
+     */
+    public ArrayList<Consumidor> darMayoresConsumidores() {
+        return new ArrayList<Consumidor>(mayoresConsumidores);
+    }
+
+    /**
+     * Retorna el total de las facturas pendientes de cada concepto.
+     * @return Mapa con el total pendiente en centavos por concepto.
+     */
+    public HashMap<String, Long> darPendientePorConcepto() {
+        return new HashMap<String, Long>(pendientePorConcepto);
+    }
+
+    /**
+     * Retorna una cadena con las cifras del reporte.
+     * @return El reporte en varias líneas.
+     */
+    public String toString() {
+        StringBuilder reporte = new StringBuilder();
+        for(Tipo tipo : Tipo.values()) {
+            reporte.append(tipo).append(": ").append(darNumeroSocios(tipo)).append(" socios, pendiente $")
+                    .append(Dinero.formatear(darTotalPendienteCentavos(tipo))).append(", fondos $")
+                    .append(Dinero.formatear(darFondosCentavos(tipo))).append(String.format(" (%.1f%% del máximo)",
+                            100 * darUtilizacionFondos(tipo))).append('\n');
+        }
+        reporte.append("Mayores consumidores:\n");
+        for(Consumidor consumidor : mayoresConsumidores) {
+            reporte.append("  ").append(consumidor).append('\n');
+        }
+        reporte.append("Pendiente por concepto:\n");
+        for(Map.Entry<String, Long> concepto : pendientePorConcepto.entrySet()) {
+            reporte.append("  ").append(concepto.getKey()).append(": $")
+                    .append(Dinero.formatear(concepto.getValue())).append('\n');
+        }
+        return reporte.toString();
+    }
+
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
+
+    /**
+     * Socio con su total de consumos pendientes.
+     */
+    public static class Consumidor {
+
+        /**
+         * Cédula del socio.
+         */
+        private final String cedula;
+
+        /**
+         * Nombre del socio.
+         */
+        private final String nombre;
+
+        /**
+         * Total pendiente en centavos.
+         */
+        private final long total;
+
+        /**
+         * Crea un consumidor del reporte.
+         * @param pCedula Cédula del socio.
+         * @param pNombre Nombre del socio.
+         * @param pTotal Total pendiente en centavos.
+         */
+        Consumidor(String pCedula, String pNombre, long pTotal) {
+            cedula = pCedula;
+            nombre = pNombre;
+            total = pTotal;
+        }
+
+        /**
+         * Retorna la cédula del socio.
+         * @return La cédula.
+         */
+        public String darCedula() {
+            return cedula;
+        }
+
+        /**
+         * Retorna el nombre del socio.
+         * @return El nombre.
+         */
+        public String darNombre() {
+            return nombre;
+        }
+
+        /**
+         * Retorna el total pendiente del socio.
+         * @return El total en centavos.
+         */
+        public long darTotalCentavos() {
+            return total;
+        }
+
+        public String toString() {
+            return cedula + " - " + nombre + "    $" + Dinero.formatear(total);
+        }
+    }
+
+    /**
+     * Cifras parciales de un grupo de socios. Cada hilo del recorrido paralelo llena el suyo
+     * y al final se combinan.
+     */
+    static class Acumulador {
+
+        /**
+         * Cantidad de socios por tipo, indexada por el ordinal del tipo.
+         */
+        private final int[] socios = new int[Tipo.values().length];
+
+        /**
+         * Total pendiente por tipo.
+         */
+        private final long[] pendiente = new long[Tipo.values().length];
+
+        /**
+         * Fondos por tipo.
+         */
+        private final long[] fondos = new long[Tipo.values().length];
+
+        /**
+         * Total pendiente por concepto.
+         */
+        private final HashMap<String, Long> porConcepto = new HashMap<String, Long>();
+
+        /**
+         * Socios con más consumos pendientes; el de menor total está al frente.
+         */
+        private final PriorityQueue<Consumidor> mayores =
+                new PriorityQueue<Consumidor>((a, b) -> Long.compare(a.total, b.total));
+
+        /**
+         * Cantidad de socios que se conservan en mayores.
+         */
+        private final int cantidadMayores;
+
+        /**
+         * Crea un acumulador vacío.
+         * @param pCantidadMayores Cantidad de mayores consumidores a conservar. pCantidadMayores >= 0.
+         */
+        Acumulador(int pCantidadMayores) {
+            cantidadMayores = pCantidadMayores;
+        }
+
+        /**
+         * Suma las cifras de un socio. Las lee con el candado del socio, que se suelta al terminar.
+         * @param pSocio Socio a sumar.
+         */
+        void agregar(Socio pSocio) {
+            int tipo = pSocio.darTipo().ordinal();
+            long fondosSocio;
+            long pendienteSocio;
+            synchronized(pSocio) {
+                if(pSocio.estaEliminado()) {
+                    return;
+                }
+                fondosSocio = pSocio.darFondosCentavos();
+                pendienteSocio = pSocio.darTotalPendienteCentavos();
+                pSocio.recorrerFacturas(factura ->
+                        porConcepto.merge(factura.darConcepto(), factura.darValorCentavos(), Dinero::sumar));
+            }
+
+            socios[tipo]++;
+            pendiente[tipo] = Dinero.sumar(pendiente[tipo], pendienteSocio);
+            fondos[tipo] = Dinero.sumar(fondos[tipo], fondosSocio);
+            ofrecer(new Consumidor(pSocio.darCedula(), pSocio.darNombre(), pendienteSocio));
+        }
+
+        /**
+         * Combina las cifras de otro acumulador con las de este.
+         * @param pOtro Acumulador a combinar.
+         */
+        void combinar(Acumulador pOtro) {
+            for(int i = 0; i < socios.length; i++) {
+                socios[i] += pOtro.socios[i];
+                pendiente[i] = Dinero.sumar(pendiente[i], pOtro.pendiente[i]);
+                fondos[i] = Dinero.sumar(fondos[i], pOtro.fondos[i]);
+            }
+            for(Map.Entry<String, Long> concepto : pOtro.porConcepto.entrySet()) {
+                porConcepto.merge(concepto.getKey(), concepto.getValue(), Dinero::sumar);
+            }
+            for(Consumidor consumidor : pOtro.mayores) {
+                ofrecer(consumidor);
+            }
+        }
+
+        /**
+         * Agrega un socio a los mayores consumidores si está entre ellos.
+         * @param pConsumidor Socio con su total pendiente.
+         */
+        private void ofrecer(Consumidor pConsumidor) {
+            if(cantidadMayores == 0 || pConsumidor.total == 0) {
+                return;
+            }
+            if(mayores.size() < cantidadMayores) {
+                mayores.add(pConsumidor);
+            } else if(pConsumidor.total > mayores.peek().total) {
+                mayores.poll();
+                mayores.add(pConsumidor);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package club;
+
+/**
+ * Resultado de una operación del club que informa sus rechazos con un código en lugar de una excepción.
+ */
+public enum Resultado {
+
+    /**
+     * La operación se realizó.
+     */
+    EXITO("La operación se realizó."),
+
+    /**
+     * No existe un socio con la cédula dada.
+     */
+    SOCIO_NO_EXISTE("No existe un socio con la cédula dada."),
+
+    /**
+     * El socio no tiene fondos suficientes.
+     */
+    FONDOS_INSUFICIENTES("El socio no posee fondos suficientes."),
+
+    /**
+     * Ya existe un socio con la cédula dada.
+     */
+    SOCIO_YA_EXISTE("Ya existe un socio con la cédula dada."),
+
+    /**
+     * El club no acepta más socios VIP.
+     */
+    LIMITE_VIP("El club no acepta más socios VIP."),
+
+    /**
+     * El socio no puede ser su propio autorizado.
+     */
+    AUTORIZADO_INVALIDO("No puede agregar el socio como autorizado."),
+
+    /**
+     * El autorizado ya existe.
+     */
+    AUTORIZADO_YA_EXISTE("El autorizado ya existe."),
+
+    /**
+     * Un dato de la operación no es válido, por ejemplo un texto demasiado largo.
+     */
+    DATO_INVALIDO("Un dato de la operación no es válido."),
+
+    /**
+     * El club tiene demasiadas operaciones por aplicar y no recibió la operación.
+     */
+    COLA_LLENA("El club está ocupado; intente nuevamente.");
+
+    /**
+     * Descripción del resultado.
+     */
+    private final String descripcion;
+
+    /**
+     * Construye el resultado con su descripción.
+     * @param pDescripcion Descripción del resultado.
+     */
+    private Resultado(String pDescripcion) {
+        descripcion = pDescripcion;
+    }
+
+    /**
+     * Retorna la descripción del resultado.
+     * @return La descripción.
+     */
+    public String darDescripcion() {
+        return descripcion;
+    }
+}
@@ -1,9 +1,21 @@
 package club;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
 import club.Excepciones.*;
 
 /**
  * Clase que modela un socio.
+ * Las operaciones que leen o modifican las facturas o los autorizados se sincronizan sobre
+ * el propio socio, de modo que son atómicas entre sí. Los fondos también se escriben solo con el
+ * candado del socio, validando el límite y los fondos suficientes contra el valor que se reemplaza,
+ * así que nunca quedan negativos ni por encima del máximo aunque varios puntos de venta los cambien
+ * a la vez. No se cambian sin candado porque el club debe anotar cada cambio de fondos en la bitácora
+ * en el mismo orden en que lo validó, y ordenarlo respecto de la eliminación del socio; los fondos
+ * sí se pueden leer sin el candado.
  */
 public class Socio
 {
@@ -49,6 +61,31 @@ public class Socio
      */
     public final static double MONTO_MAXIMO_VIP = 5000;
 
+    /**
+     * Dinero base, en centavos, con el que empiezan todos los socios regulares.
+     */
+    public final static long FONDOS_INICIALES_REGULARES_CENTAVOS = 5000;
+
+    /**
+     * Dinero base, en centavos, con el que empiezan todos los socios VIP.
+     */
+    public final static long FONDOS_INICIALES_VIP_CENTAVOS = 10000;
+
+    /**
+     * Dinero máximo, en centavos, que puede tener un socio regular en sus fondos.
+     */
+    public final static long MONTO_MAXIMO_REGULARES_CENTAVOS = 100000;
+
+    /**
+     * Dinero máximo, en centavos, que puede tener un socio VIP en sus fondos.
+     */
+    public final static long MONTO_MAXIMO_VIP_CENTAVOS = 500000;
+
+    /**
+     * Identificador de la primera factura de un socio.
+     */
+    public final static long PRIMER_ID_FACTURA = 1;
+
     // -----------------------------------------------------------------
     // Atributos
     // -----------------------------------------------------------------
@@ -64,9 +101,10 @@ public class Socio
     private String nombre;
 
     /**
-     * Dinero que el socio tiene disponible.
+     * Celda con el dinero que el socio tiene disponible, en centavos.
+     * Solo se modifica con el candado del socio; se puede leer sin él.
      */
-    private double fondos;
+    private final CeldaFondos fondos;
 
     /**
      * Tipo de subscripción del socio.
@@ -76,12 +114,41 @@ public class Socio
     /**
      * Facturas que tiene por pagar el socio.
      */
-    private ArrayList<Factura> facturas;
+    private RegistroFacturas facturas;
+
+    /**
+     * Identificador que recibirá la siguiente factura. Solo crece, así que un identificador no se reutiliza.
+     */
+    private long siguienteIdFactura;
+
+    /**
+     * Suma, en centavos, de los valores de las facturas pendientes de pago.
+     * Se actualiza al registrar un consumo y al pagar una factura.
+     */
+    private volatile long totalPendiente;
 
     /**
-     * Nombres de las personas autorizadas para este socio.
+     * Cantidad de facturas pendientes de pago.
+     * Se actualiza al registrar un consumo y al pagar una factura.
      */
-    private ArrayList<String> autorizados;
+    private volatile int numeroFacturasPendientes;
+
+    /**
+     * Cantidad y total de las facturas pendientes de cada persona que ha consumido a nombre del socio.
+     * Solo tiene a quienes tienen al menos una factura pendiente.
+     */
+    private HashMap<String, Pendientes> pendientesPorCliente;
+
+    /**
+     * Nombres de las personas autorizadas para este socio, en el orden en que se autorizaron.
+     */
+    private LinkedHashSet<String> autorizados;
+
+    /**
+     * Indica si el socio ya fue eliminado del club.
+     * Solo se modifica con el candado del socio; se puede leer sin él.
+     */
+    private volatile boolean eliminado;
 
     // -----------------------------------------------------------------
     // Constructor
@@ -96,28 +163,103 @@ public class Socio
      * @param pTipo Corresponde al tipo de subscripción del socio. pTipo pertenece {Tipo.VIP, Tipo.REGULAR}.
      */
     public Socio( String pCedula, String pNombre, Tipo pTipo )
+    {
+        this( pCedula, pNombre, pTipo, new CeldaFondosMemoria( darFondosIniciales( pTipo ) ) );
+    }
+
+    /**
+     * Crea un socio del club cuyos fondos viven en la celda dada. <br>
+     * <b>post: </b> Se creó un objeto socio con los valores pasados por parámetro.<br>
+     * El vector de facturas y el vector de autorizados fueron inicializados.
+     * @param pCedula Corresponde a la cédula del socio nuevo. pCedula != null && pCedula != "".
+     * @param pNombre Corresponde al nombre del socio nuevo. pNombre != null && pNombre != "".
+     * @param pTipo Corresponde al tipo de subscripción del socio. pTipo pertenece {Tipo.VIP, Tipo.REGULAR}.
+     * @param pFondos Celda que ya tiene los fondos disponibles del socio. pFondos != null.
+     */
+    public Socio( String pCedula, String pNombre, Tipo pTipo, CeldaFondos pFondos )
+    {
+        this( pCedula, pNombre, pTipo, pFondos, new ArrayList<String>( ), new ArrayList<Factura>( ), PRIMER_ID_FACTURA );
+    }
+
+    /**
+     * Crea un socio del club con un estado guardado previamente, por ejemplo al recuperarlo de una instantánea. <br>
+     * <b>post: </b> Se creó un objeto socio con los fondos, autorizados y facturas dados.<br>
+     * El total y la cantidad de facturas pendientes corresponden a las facturas dadas.
+     * @param pCedula Corresponde a la cédula del socio. pCedula != null && pCedula != "".
+     * @param pNombre Corresponde al nombre del socio. pNombre != null && pNombre != "".
+     * @param pTipo Corresponde al tipo de subscripción del socio. pTipo pertenece {Tipo.VIP, Tipo.REGULAR}.
+     * @param pFondos Celda que ya tiene los fondos disponibles del socio. pFondos != null.
+     * @param pAutorizados Nombres de las personas autorizadas. pAutorizados != null.
+     * @param pFacturas Facturas pendientes de pago, en el orden en que se registraron. pFacturas != null.
+     * @param pSiguienteIdFactura Identificador que recibirá la siguiente factura; es mayor que el de todas las facturas dadas.
+     */
+    public Socio( String pCedula, String pNombre, Tipo pTipo, CeldaFondos pFondos,
+                  ArrayList<String> pAutorizados, ArrayList<Factura> pFacturas, long pSiguienteIdFactura )
+    {
+        this( pCedula, pNombre, pTipo, pFondos, pAutorizados, pFacturas, pSiguienteIdFactura, FormatoFacturas.OBJETOS );
+    }
+
+    /**
+     * Crea un socio del club con un estado guardado previamente, que guarda sus facturas en el formato dado. <br>
+     * <b>post: </b> Se creó un objeto socio con los fondos, autorizados y facturas dados.<br>
+     * El total y la cantidad de facturas pendientes corresponden a las facturas dadas.
+     * @param pCedula Corresponde a la cédula del socio. pCedula != null && pCedula != "".
+     * @param pNombre Corresponde al nombre del socio. pNombre != null && pNombre != "".
+     * @param pTipo Corresponde al tipo de subscripción del socio. pTipo pertenece {Tipo.VIP, Tipo.REGULAR}.
+     * @param pFondos Celda que ya tiene los fondos disponibles del socio. pFondos != null.
+     * @param pAutorizados Nombres de las personas autorizadas. pAutorizados != null.
+     * @param pFacturas Facturas pendientes de pago, en el orden en que se registraron. pFacturas != null.
+     * @param pSiguienteIdFactura Identificador que recibirá la siguiente factura; es mayor que el de todas las facturas dadas.
+     * @param pFormato Formato en que se guardan las facturas. pFormato != null.
+     */
+    public Socio( String pCedula, String pNombre, Tipo pTipo, CeldaFondos pFondos,
+                  ArrayList<String> pAutorizados, ArrayList<Factura> pFacturas, long pSiguienteIdFactura,
+                  FormatoFacturas pFormato )
     {
         cedula = pCedula;
         nombre = pNombre;
         tipoSubscripcion = pTipo;
+        fondos = pFondos;
 
-        switch( tipoSubscripcion )
+        facturas = pFormato.crear( );
+        for( Factura factura : pFacturas )
         {
-            case VIP:
-                fondos = FONDOS_INICIALES_VIP;
-                break;
-            default:
-                fondos = FONDOS_INICIALES_REGULARES;
+            facturas.agregar( factura.darId( ), factura.darNombre( ), factura.darConcepto( ), factura.darValorCentavos( ) );
         }
+        siguienteIdFactura = pSiguienteIdFactura;
+        autorizados = new LinkedHashSet<String>( pAutorizados );
+        pendientesPorCliente = new HashMap<String, Pendientes>( );
 
-        facturas = new ArrayList<Factura>( );
-        autorizados = new ArrayList<String>( );
+        long total = 0;
+        for( Factura factura : pFacturas )
+        {
+            total = Dinero.sumar( total, factura.darValorCentavos( ) );
+            sumarPendiente( factura.darNombre( ), factura.darValorCentavos( ) );
+        }
+        totalPendiente = total;
+        numeroFacturasPendientes = facturas.darNumero( );
     }
 
     // -----------------------------------------------------------------
     // Métodos
     // -----------------------------------------------------------------
 
+    /**
+     * Retorna los fondos con los que empieza un socio del tipo dado. <br>
+     * @param pTipo Tipo de subscripción. pTipo pertenece {Tipo.VIP, Tipo.REGULAR}.
+     * @return Los fondos iniciales en centavos.
+     */
+    public static long darFondosIniciales( Tipo pTipo )
+    {
+        switch( pTipo )
+        {
+            case VIP:
+                return FONDOS_INICIALES_VIP_CENTAVOS;
+            default:
+                return FONDOS_INICIALES_REGULARES_CENTAVOS;
+        }
+    }
+
     /**
      * Retorna el nombre del socio. <br>
      * @return El nombre del socio.
@@ -141,10 +283,58 @@ public class Socio
      * @return Los fondos del socio.
      */
     public double darFondos( )
+    {
+        return Dinero.aUnidades( fondos.leer( ) );
+    }
+
+    /**
+     * Retorna los fondos disponibles del socio en centavos. <br>
+     * @return Los fondos del socio en centavos.
+     */
+    public long darFondosCentavos( )
+    {
+        return fondos.leer( );
+    }
+
+    /**
+     * Retorna la celda donde viven los fondos del socio. <br>
+     * @return La celda de fondos.
+     */
+    public CeldaFondos darCeldaFondos( )
     {
         return fondos;
     }
 
+    /**
+     * Indica si el socio ya fue eliminado del club. <br>
+     * Un punto de venta que encontró al socio antes de su eliminación lo debe revisar con el candado
+     * del socio antes de modificarlo.
+     * @return True si el socio fue eliminado, false en caso contrario.
+     */
+    public boolean estaEliminado( )
+    {
+        return eliminado;
+    }
+
+    /**
+     * Marca al socio como eliminado del club. <br>
+     * <b>pre: </b> El hilo actual tiene el candado del socio.<br>
+     * <b>post: </b> El socio quedó marcado como eliminado.
+     */
+    void marcarEliminado( )
+    {
+        eliminado = true;
+    }
+
+    /**
+     * Retorna el monto máximo que puede tener el socio en sus fondos según su tipo. <br>
+     * @return El monto máximo en centavos.
+     */
+    public long darMontoMaximoCentavos( )
+    {
+        return tipoSubscripcion == Tipo.VIP ? MONTO_MAXIMO_VIP_CENTAVOS : MONTO_MAXIMO_REGULARES_CENTAVOS;
+    }
+
     /**
      * Retorna el tipo de subscripción del socio. <br>
      * @return El tipo de subscripción del socio.
@@ -156,20 +346,87 @@ public class Socio
 
     /**
      * Retorna la lista de facturas. <br>
-     * @return Retorna una lista con todas las facturas pendientes de pago del socio.
+     * @return Retorna una copia de la lista con todas las facturas pendientes de pago del socio.
      */
-    public ArrayList<Factura> darFacturas( )
+    public synchronized ArrayList<Factura> darFacturas( )
     {
-        return facturas;
+        return facturas.copiar( );
+    }
+
+    /**
+     * Recorre las facturas pendientes del socio en el orden en que se registraron, sin copiarlas. <br>
+     * La factura que recibe la acción puede ser una vista que se reutiliza en cada paso,
+     * así que la acción no debe guardarla. El socio queda bloqueado durante el recorrido.
+     * @param pAccion Acción a aplicar a cada factura. pAccion != null.
+     */
+    public synchronized void recorrerFacturas( Consumer<Factura> pAccion )
+    {
+        facturas.recorrer( pAccion );
+    }
+
+    /**
+     * Retorna el identificador que recibirá la siguiente factura del socio. <br>
+     * @return El siguiente identificador de factura.
+     */
+    public synchronized long darSiguienteIdFactura( )
+    {
+        return siguienteIdFactura;
     }
 
     /**
      * Retorna la lista de autorizados por el socio. <br>
-     * @return La lista con los nombres de los autorizados por este socio.
+     * @return Una copia de la lista con los nombres de los autorizados por este socio.
+     */
+    public synchronized ArrayList<String> darAutorizados( )
+    {
+        return new ArrayList<String>( autorizados );
+    }
+
+    /**
+     * Retorna una vista de solo lectura de los autorizados por el socio, sin copiarlos. <br>
+     * La vista refleja los cambios posteriores; para recorrerla mientras otros puntos de venta
+     * pueden modificar los autorizados se debe tener el candado del socio.
+     * @return El conjunto de los nombres de los autorizados, en el orden en que se autorizaron.
+     */
+    public Set<String> darVistaAutorizados( )
+    {
+        return Collections.unmodifiableSet( autorizados );
+    }
+
+    /**
+     * Retorna el valor total de las facturas pendientes de pago del socio. <br>
+     * @return La suma en centavos de los valores de las facturas pendientes, 0 si no tiene facturas.
      */
-    public ArrayList<String> darAutorizados( )
+    public long darTotalPendienteCentavos( )
     {
-        return autorizados;
+        return totalPendiente;
+    }
+
+    /**
+     * Retorna la cantidad de facturas pendientes de pago del socio. <br>
+     * @return El número de facturas pendientes.
+     */
+    public int darNumeroFacturasPendientes( )
+    {
+        return numeroFacturasPendientes;
+    }
+
+    /**
+     * Retorna los fondos que le quedan al socio una vez descontadas sus facturas pendientes. <br>
+     * @return Los fondos menos el total pendiente, en centavos. Puede ser negativo.
+     */
+    public long darSaldoDisponibleCentavos( )
+    {
+        return fondos.leer( ) - totalPendiente;
+    }
+
+    /**
+     * Retorna la cantidad de personas autorizadas por el socio. <br>
+     * @return El número de autorizados.
+     */
+    public synchronized int darNumeroAutorizados( )
+    {
+        return autorizados.size( );
     }
 
     /**
@@ -180,17 +437,7 @@ public class Socio
      */
     private boolean existeAutorizado( String pNombreAutorizado )
     {
-        boolean encontro = false;
-
-        for( int i = 0; i < autorizados.size( ) && !encontro; i++ )
-        {
-            String a = autorizados.get( i );
-            if( a.equals( pNombreAutorizado ) )
-            {
-                encontro = true;
-            }
-        }
-        return encontro;
+        return autorizados.contains( pNombreAutorizado );
     }
 
     /**
@@ -201,17 +448,77 @@ public class Socio
      */
     private boolean tieneFacturaAsociada( String pNombreAutorizado)
     {
-        boolean tiene = false;
-        for( int i = 0; i < facturas.size( ) && !tiene; i++ )
+        return pendientesPorCliente.containsKey( pNombreAutorizado );
+    }
+
+    /**
+     * Retorna el valor total de las facturas pendientes de una persona que consume a nombre del socio. <br>
+     * @param pNombreCliente Nombre del socio o de uno de sus autorizados. pNombreCliente != null.
+     * @return La suma en centavos de sus facturas pendientes, 0 si no tiene facturas.
+     */
+    public synchronized long darTotalPendienteClienteCentavos( String pNombreCliente )
+    {
+        Pendientes pendientes = pendientesPorCliente.get( pNombreCliente );
+        return pendientes == null ? 0 : pendientes.total;
+    }
+
+    /**
+     * Retorna la cantidad de facturas pendientes de una persona que consume a nombre del socio. <br>
+     * @param pNombreCliente Nombre del socio o de uno de sus autorizados. pNombreCliente != null.
+     * @return El número de sus facturas pendientes.
+     */
+    public synchronized int darNumeroFacturasPendientesCliente( String pNombreCliente )
+    {
+        Pendientes pendientes = pendientesPorCliente.get( pNombreCliente );
+        return pendientes == null ? 0 : pendientes.numero;
+    }
+
+    /**
+     * Retorna el total pendiente de cada persona que tiene facturas pendientes a nombre del socio. <br>
+     * @return Mapa con el total pendiente en centavos por nombre de cliente.
+     */
+    public synchronized HashMap<String, Long> darTotalesPendientesPorCliente( )
+    {
+        HashMap<String, Long> totales = new HashMap<String, Long>( );
+        for( String cliente : pendientesPorCliente.keySet( ) )
         {
-            Factura factura = facturas.get( i );
-            if( factura.darNombre( ).equals( pNombreAutorizado ) )
-            {
-                tiene = true;
-            }
+            totales.put( cliente, pendientesPorCliente.get( cliente ).total );
         }
+        return totales;
+    }
 
-        return tiene;
+    /**
+     * Suma una factura a las pendientes de un cliente. <br>
+     * @param pNombreCliente Nombre de quien hizo el consumo.
+     * @param pValor Valor de la factura en centavos.
+     */
+    private void sumarPendiente( String pNombreCliente, long pValor )
+    {
+        Pendientes pendientes = pendientesPorCliente.get( pNombreCliente );
+        if( pendientes == null )
+        {
+            pendientes = new Pendientes( );
+            pendientesPorCliente.put( pNombreCliente, pendientes );
+        }
+        pendientes.numero++;
+        pendientes.total = Dinero.sumar( pendientes.total, pValor );
+    }
+
+    /**
+     * Resta una factura pagada de las pendientes de un cliente. <br>
+     * <b>pre: </b> El cliente tiene la factura entre sus pendientes. <br>
+     * @param pNombreCliente Nombre de quien hizo el consumo.
+     * @param pValor Valor de la factura en centavos.
+     */
+    private void restarPendiente( String pNombreCliente, long pValor )
+    {
+        Pendientes pendientes = pendientesPorCliente.get( pNombreCliente );
+        pendientes.numero--;
+        pendientes.total = pendientes.total - pValor;
+        if( pendientes.numero == 0 )
+        {
+            pendientesPorCliente.remove( pNombreCliente );
+        }
     }
 
     /**
@@ -221,26 +528,34 @@ public class Socio
      */
     public void aumentarFondos( double pFondos ) throws LimiteFondosException
     {
-        if( tipoSubscripcion == Tipo.VIP && pFondos + fondos > MONTO_MAXIMO_VIP )
+        aumentarFondosCentavos( Dinero.aCentavos( pFondos ) );
+    }
+
+    /**
+     * Aumenta los fondos disponibles del socio en la cantidad de centavos dada.
+     * @param pFondos Valor en centavos por adicionar a los fondos. pFondos > 0.
+     * @throws LimiteFondosException Si se excede el límite de fondos.
+     * @throws DatoInvalidoException Si el valor no es positivo.
+     */
+    public synchronized void aumentarFondosCentavos( long pFondos ) throws LimiteFondosException, DatoInvalidoException
+    {
+        if( pFondos <= 0 )
         {
-            throw new LimiteFondosException(
-                    "Con este monto se excederían los fondos máximos de un socio VIP. " +
-                            "Límite: $" + MONTO_MAXIMO_VIP + ", Fondos actuales: $" + fondos +
-                            ", Monto a agregar: $" + pFondos
-            );
+            throw new DatoInvalidoException( "El valor a aumentar debe ser mayor que cero." );
         }
-        else if( tipoSubscripcion == Tipo.REGULAR && pFondos + fondos > MONTO_MAXIMO_REGULARES )
+        // Se compara contra lo que falta para el límite para que la suma nunca desborde
+        long maximo = darMontoMaximoCentavos( );
+        long actuales = fondos.leer( );
+        if( pFondos > maximo - actuales )
         {
             throw new LimiteFondosException(
-                    "Con este monto se excederían los fondos máximos de un socio regular. " +
-                            "Límite: $" + MONTO_MAXIMO_REGULARES + ", Fondos actuales: $" + fondos +
-                            ", Monto a agregar: $" + pFondos
+                    () -> "Con este monto se excederían los fondos máximos de un socio " +
+                            ( tipoSubscripcion == Tipo.VIP ? "VIP" : "regular" ) + ". " +
+                            "Límite: $" + Dinero.formatear( maximo ) + ", Fondos actuales: $" + Dinero.formatear( actuales ) +
+                            ", Monto a agregar: $" + Dinero.formatear( pFondos )
             );
         }
-        else
-        {
-            fondos = fondos + pFondos;
-        }
+        fondos.escribir( actuales + pFondos );
     }
 
     /**
@@ -256,20 +571,69 @@ public class Socio
     public void registrarConsumo( String pNombre, String pConcepto, double pValor )
             throws FondosInsuficientesException
     {
-        if( pValor > fondos )
+        registrarConsumoCentavos( pNombre, pConcepto, Dinero.aCentavos( pValor ) );
+    }
+
+    /**
+     * Registra un nuevo consumo, con su valor en centavos, para el socio o una de sus personas autorizadas. <br>
+     * <b>pre: </b> La lista de facturas ha sido inicializada. <br>
+     * El nombre pertenece a la lista de autorizados.<br>
+     * <b>post: </b> Se agregó una nueva factura .
+     * @param pNombre El nombre de la persona que realizó el consumo. pNombre != null && pNombre != "".
+     * @param pConcepto Es la descripción del consumo. pConcepto != null && pConcepto != "".
+     * @param pValor Es el valor del consumo en centavos. pValor >= 0.
+     * @return El identificador de la nueva factura.
+     * @throws FondosInsuficientesException Si no hay fondos suficientes.
+     * @throws DatoInvalidoException Si el valor es negativo.
+     */
+    public synchronized long registrarConsumoCentavos( String pNombre, String pConcepto, long pValor )
+            throws FondosInsuficientesException, DatoInvalidoException
+    {
+        if( pValor < 0 )
+        {
+            throw new DatoInvalidoException( "El valor del consumo no puede ser negativo." );
+        }
+        long disponibles = fondos.leer( );
+        if( pValor > disponibles )
         {
             throw new FondosInsuficientesException(
-                    "El socio no posee fondos suficientes para este consumo. " +
-                            "Fondos disponibles: $" + fondos + ", Valor del consumo: $" + pValor
+                    () -> "El socio no posee fondos suficientes para este consumo. " +
+                            "Fondos disponibles: $" + Dinero.formatear( disponibles ) +
+                            ", Valor del consumo: $" + Dinero.formatear( pValor )
             );
         }
         else
         {
-            Factura nuevaFactura = new Factura( pNombre, pConcepto, pValor );
-            facturas.add( nuevaFactura );
+            return agregarFactura( pNombre, pConcepto, pValor );
         }
     }
 
+    /**
+     * Agrega una factura por un consumo cuyos fondos ya fueron verificados. <br>
+     * <b>pre: </b> El hilo actual tiene el candado del socio y pValor no supera los fondos disponibles. <br>
+     * <b>post: </b> Se agregó una nueva factura y se actualizó el total pendiente.
+     * @param pNombre El nombre de la persona que realizó el consumo. pNombre != null && pNombre != "".
+     * @param pConcepto Es la descripción del consumo. pConcepto != null && pConcepto != "".
+     * @param pValor Es el valor del consumo en centavos. pValor >= 0.
+     * @return El identificador de la nueva factura.
+     */
+    long agregarFactura( String pNombre, String pConcepto, long pValor )
+    {
+        // Los nombres y conceptos se repiten en muchas facturas; se guarda una sola instancia de cada uno
+        String nombreCliente = Internador.COMPARTIDO.internar( pNombre );
+        String concepto = Internador.COMPARTIDO.internar( pConcepto );
+
+        // El total se calcula antes de cambiar nada, para que un desborde no deje una factura sin sumar.
+        // El total de un cliente nunca supera el del socio, así que tampoco puede desbordarse después
+        long total = Dinero.sumar( totalPendiente, pValor );
+        long id = siguienteIdFactura++;
+        facturas.agregar( id, nombreCliente, concepto, pValor );
+        totalPendiente = total;
+        numeroFacturasPendientes++;
+        sumarPendiente( nombreCliente, pValor );
+        return id;
+    }
+
     /**
      * Agrega una nueva persona autorizada al socio. <br>
      * <b>pre: </b> La lista de autorizados ha sido inicializada. <br>
@@ -279,7 +643,7 @@ public class Socio
      * @throws FondosInsuficientesException Si no tiene fondos.
      * @throws AutorizadoYaExisteException Si el autorizado ya existe.
      */
-    public void agregarAutorizado( String pNombreAutorizado )
+    public synchronized void agregarAutorizado( String pNombreAutorizado )
             throws AutorizadoInvalidoException, FondosInsuficientesException, AutorizadoYaExisteException
     {
         // Verificar que el nombre del socio no es el mismo del que se quiere autorizar
@@ -291,7 +655,7 @@ public class Socio
         }
 
         // Verificar que el socio posee fondos para financiar un nuevo autorizado
-        if( fondos == 0 )
+        if( fondos.leer( ) == 0 )
         {
             throw new FondosInsuficientesException(
                     "El socio no tiene fondos para financiar un nuevo autorizado."
@@ -318,54 +682,78 @@ public class Socio
      * @param pNombreAutorizado Nombre del autorizado. pNombreAutorizado != null.
      * @throws AutorizadoConFacturasException Si el autorizado tiene facturas pendientes.
      */
-    public void eliminarAutorizado( String pNombreAutorizado )
+    public synchronized void eliminarAutorizado( String pNombreAutorizado )
             throws AutorizadoConFacturasException
     {
-        boolean encontro = false;
-        int numAutorizados = autorizados.size( );
-
         if(tieneFacturaAsociada( pNombreAutorizado ))
         {
             throw new AutorizadoConFacturasException(
-                    pNombreAutorizado + " tiene una factura sin pagar."
+                    () -> pNombreAutorizado + " tiene una factura sin pagar."
             );
         }
 
-        for( int i = 0; i < numAutorizados && !encontro; i++ )
-        {
-            String a = autorizados.get( i );
-            if( a.equals( pNombreAutorizado ) )
-            {
-                encontro = true;
-                autorizados.remove( i );
-            }
-        }
+        autorizados.remove( pNombreAutorizado );
     }
 
     /**
      * Paga la factura con el índice dado. <br>
+     * Se conserva por compatibilidad: recorre las facturas hasta la posición dada. Los puntos de venta
+     * deben pagar por identificador con pagarFacturaPorId, que no depende del orden de las facturas. <br>
      * <b>pre: </b> La lista de facturas ha sido inicializada. <br>
      * <b>post: </b> Se borró la factura de la lista de facturas.
      * @param pIndiceFactura Posición de la factura a eliminar. facturaIndice >= 0.
+     * @return El identificador de la factura pagada.
      * @throws FondosInsuficientesException Si no hay fondos suficientes.
      */
-    public void pagarFactura( int pIndiceFactura )
+    public synchronized long pagarFactura( int pIndiceFactura )
             throws FondosInsuficientesException
     {
-        Factura factura = facturas.get( pIndiceFactura );
+        if( pIndiceFactura < 0 || pIndiceFactura >= facturas.darNumero( ) )
+        {
+            throw new IndexOutOfBoundsException( pIndiceFactura );
+        }
+
+        long id = facturas.darIdEnPosicion( pIndiceFactura );
+        pagarFacturaPorId( id );
+        return id;
+    }
 
-        if( factura.darValor( ) > fondos )
+    /**
+     * Paga la factura con el identificador dado, sin mover las demás facturas pendientes. <br>
+     * <b>pre: </b> La lista de facturas ha sido inicializada. <br>
+     * <b>post: </b> Se borró la factura de la lista de facturas y se descontó su valor de los fondos.
+     * @param pIdFactura Identificador de la factura a pagar.
+     * @throws FacturaNoExisteException Si el socio no tiene una factura pendiente con ese identificador.
+     * @throws FondosInsuficientesException Si no hay fondos suficientes.
+     */
+    public synchronized void pagarFacturaPorId( long pIdFactura )
+            throws FacturaNoExisteException, FondosInsuficientesException
+    {
+        Factura factura = facturas.buscar( pIdFactura );
+        if( factura == null )
         {
-            throw new FondosInsuficientesException(
-                    "El socio no posee fondos suficientes para pagar esta factura. " +
-                            "Fondos disponibles: $" + fondos + ", Valor de la factura: $" + factura.darValor()
+            throw new FacturaNoExisteException(
+                    () -> "El socio no tiene una factura pendiente con el identificador: " + pIdFactura
             );
         }
-        else
+        long valor = factura.darValorCentavos( );
+        String cliente = factura.darNombre( );
+
+        long disponibles = fondos.leer( );
+        if( valor > disponibles )
         {
-            fondos = fondos - factura.darValor( );
-            facturas.remove( pIndiceFactura );
+            throw new FondosInsuficientesException(
+                    () -> "El socio no posee fondos suficientes para pagar esta factura. " +
+                            "Fondos disponibles: $" + Dinero.formatear( disponibles ) +
+                            ", Valor de la factura: $" + Dinero.formatear( valor )
+            );
         }
+        fondos.escribir( disponibles - valor );
+
+        facturas.quitar( pIdFactura );
+        totalPendiente = totalPendiente - valor;
+        numeroFacturasPendientes--;
+        restarPendiente( cliente, valor );
     }
 
     /**
@@ -378,4 +766,24 @@ public class Socio
         return socio;
     }
 
+    // -----------------------------------------------------------------
+    // Clases internas
+    // -----------------------------------------------------------------
+
+    /**
+     * Cantidad y total de las facturas pendientes de un cliente.
+     */
+    private static class Pendientes
+    {
+        /**
+         * Cantidad de facturas pendientes.
+         */
+        private int numero;
+
+        /**
+         * Suma en centavos de las facturas pendientes.
+         */
+        private long total;
+    }
+
 }
\ No newline at end of file
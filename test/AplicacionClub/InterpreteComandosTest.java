@@ -0,0 +1,75 @@
+package AplicacionClub;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import club.Club;
+import club.Excepciones.DatoInvalidoException;
+
+/**
+ * Pruebas de la validación de las líneas del protocolo.
+ */
+public class InterpreteComandosTest {
+
+    private Club club;
+
+    private InterpreteComandos interprete;
+
+    @BeforeEach
+    public void crear() {
+        club = new Club();
+        interprete = new InterpreteComandos(club);
+        assertEquals("OK", interprete.ejecutar("AFILIAR|1|Ana|REGULAR"));
+    }
+
+    private void verificarRechazo(String pLinea) {
+        String respuesta = interprete.ejecutar(pLinea);
+        assertTrue(respuesta.startsWith(InterpreteComandos.ERROR), pLinea + " -> " + respuesta);
+    }
+
+    @Test
+    public void rechazaValoresNoPositivos() {
+        verificarRechazo("FONDOS|1|-1000");
+        verificarRechazo("FONDOS|1|0");
+        verificarRechazo("CONSUMO|1|Ana|Almuerzo|-5");
+        verificarRechazo("CONSUMO|1|Ana|Almuerzo|0");
+        assertEquals(5000, club.buscarSocio("1").darFondosCentavos());
+        assertEquals("OK", interprete.ejecutar("FACTURAS|1"));
+        assertEquals("OK 0.00", interprete.ejecutar("TOTAL|1"));
+    }
+
+    @Test
+    public void rechazaCamposVacios() {
+        verificarRechazo("AFILIAR|||REGULAR");
+        verificarRechazo("AFILIAR|2||VIP");
+        verificarRechazo("AUTORIZAR|1|");
+        verificarRechazo("AUTORIZAR||Pedro");
+        verificarRechazo("CONSUMO|1||Almuerzo|10");
+        verificarRechazo("CONSUMO|1|Ana||10");
+        assertEquals(1, club.darSocios().size());
+        assertEquals(0, club.buscarSocio("1").darNumeroAutorizados());
+        assertEquals("OK", interprete.ejecutar("FACTURAS|1"));
+    }
+
+    @Test
+    public void aceptaLineasValidas() {
+        assertEquals("OK", interprete.ejecutar("FONDOS|1|10.50"));
+        assertEquals("OK", interprete.ejecutar("AUTORIZAR|1|Pedro"));
+        String respuesta = interprete.ejecutar("CONSUMO|1|Pedro|Almuerzo|12.5");
+        assertTrue(respuesta.startsWith("OK "), respuesta);
+        assertEquals("OK 12.50", interprete.ejecutar("TOTAL|1"));
+        assertEquals(6050, club.buscarSocio("1").darFondosCentavos());
+    }
+
+    @Test
+    public void elClubRechazaValoresNoPositivos() {
+        assertThrows(DatoInvalidoException.class,
+                () -> club.aumentarFondosSocioCentavos("1", -1000));
+        assertThrows(DatoInvalidoException.class,
+                () -> club.registrarConsumoCentavos("1", "Ana", "Almuerzo", -1));
+        assertThrows(DatoInvalidoException.class,
+                () -> club.buscarSocio("1").aumentarFondosCentavos(-1));
+        assertEquals(5000, club.buscarSocio("1").darFondosCentavos());
+    }
+}
@@ -0,0 +1,49 @@
+package AplicacionClub;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import club.Club;
+
+/**
+ * Pruebas del servidor de líneas del club.
+ */
+public class ServidorClubTest {
+
+    @Test
+    public void cerrarloCierraLasConexionesQueEsperanUnaLinea() throws Exception {
+        ServidorClub servidor = new ServidorClub(new Club(), 0);
+        Thread aceptador = new Thread(() -> {
+            try {
+                servidor.atender();
+            } catch(Exception e) {
+                // La prueba revisa el resultado desde el cliente
+            }
+        });
+        aceptador.start();
+
+        try(Socket cliente = new Socket(InetAddress.getLoopbackAddress(), servidor.darPuerto())) {
+            Writer salida = new OutputStreamWriter(cliente.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader entrada = new BufferedReader(
+                    new InputStreamReader(cliente.getInputStream(), StandardCharsets.UTF_8));
+            salida.write("AFILIAR|1|Ana|REGULAR\n");
+            salida.flush();
+            assertEquals("OK", entrada.readLine());
+
+            // El hilo de la conexión queda esperando la siguiente línea
+            long inicio = System.nanoTime();
+            servidor.close();
+            assertTrue(System.nanoTime() - inicio < 2_000_000_000L, "close esperó a la conexión");
+            assertNull(entrada.readLine());
+        }
+        aceptador.join(2000);
+        assertFalse(aceptador.isAlive());
+    }
+}
@@ -0,0 +1,105 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import club.Socio.Tipo;
+import club.Excepciones.SocioNoExisteException;
+import club.Excepciones.SocioYaExisteException;
+import club.Persistencia.AlmacenClub;
+
+/**
+ * Pruebas del club con varios puntos de venta a la vez.
+ */
+public class ClubConcurrenciaTest {
+
+    /**
+     * Cantidad de veces que cada hilo intenta su operación.
+     */
+    private final static int INTENTOS = 2000;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void eliminarYReafiliarLaMismaCedulaSeRecuperaIgual() throws Exception {
+        String[] cedulas = {"1", "2", "3"};
+        boolean[] existe = new boolean[cedulas.length];
+        long[] fondos = new long[cedulas.length];
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2 * cedulas.length);
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            CountDownLatch salida = new CountDownLatch(1);
+            Future<?>[] tareas = new Future<?>[2 * cedulas.length];
+
+            for(int i = 0; i < cedulas.length; i++) {
+                String cedula = cedulas[i];
+                tareas[2 * i] = hilos.submit(() -> {
+                    salida.await();
+                    for(int j = 0; j < INTENTOS; j++) {
+                        try {
+                            club.afiliarSocio(cedula, "Socio " + cedula, Tipo.REGULAR);
+                            club.aumentarFondosSocioCentavos(cedula, j + 1);
+                        } catch(SocioYaExisteException | SocioNoExisteException e) {
+                            // El otro hilo ganó la carrera
+                        }
+                    }
+                    return null;
+                });
+                tareas[2 * i + 1] = hilos.submit(() -> {
+                    salida.await();
+                    for(int j = 0; j < INTENTOS; j++) {
+                        try {
+                            club.eliminarSocio(cedula);
+                        } catch(SocioNoExisteException e) {
+                            // El otro hilo todavía no lo afilia
+                        }
+                    }
+                    return null;
+                });
+            }
+            salida.countDown();
+            for(Future<?> tarea : tareas) {
+                tarea.get();
+            }
+
+            for(int i = 0; i < cedulas.length; i++) {
+                Socio socio = club.buscarSocio(cedulas[i]);
+                existe[i] = socio != null;
+                fondos[i] = socio == null ? 0 : socio.darFondosCentavos();
+            }
+            assertEquals(contarVerdaderos(existe), club.darSocios().size());
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            assertEquals(0, almacen.darRegistrosOmitidos());
+            for(int i = 0; i < cedulas.length; i++) {
+                Socio socio = club.buscarSocio(cedulas[i]);
+                assertEquals(existe[i], socio != null, "Socio " + cedulas[i]);
+                if(socio != null) {
+                    assertEquals(fondos[i], socio.darFondosCentavos(), "Fondos de " + cedulas[i]);
+                }
+            }
+            assertEquals(contarVerdaderos(existe), club.darSocios().size());
+        }
+    }
+
+    private static int contarVerdaderos(boolean[] pValores) {
+        int cuenta = 0;
+        for(boolean valor : pValores) {
+            cuenta += valor ? 1 : 0;
+        }
+        return cuenta;
+    }
+}
@@ -0,0 +1,67 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import club.Socio.Tipo;
+import club.Excepciones.FacturaNoExisteException;
+import club.Excepciones.FondosInsuficientesException;
+import club.Excepciones.SocioNoExisteException;
+
+/**
+ * Pruebas del pago de facturas por identificador, en los dos formatos de facturas.
+ */
+public class ClubPagosTest {
+
+    @Test
+    public void pagaLaFacturaSinMoverLasDemas() {
+        for(FormatoFacturas formato : FormatoFacturas.values()) {
+            Club club = new Club(AlmacenSocios.MEMORIA, formato);
+            club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+            club.agregarAutorizadoSocio("1", "Pedro");
+            long almuerzo = club.registrarConsumoCentavos("1", "Ana", "Almuerzo", 1200);
+            long bebida = club.registrarConsumoCentavos("1", "Pedro", "Bebidas", 300);
+            long cena = club.registrarConsumoCentavos("1", "Ana", "Cena", 2500);
+
+            club.pagarFacturaSocioPorId("1", bebida);
+
+            ArrayList<Factura> facturas = club.darFacturasSocio("1");
+            assertEquals(2, facturas.size(), formato.name());
+            assertEquals(almuerzo, facturas.get(0).darId());
+            assertEquals(cena, facturas.get(1).darId());
+            assertEquals(3700, club.buscarSocio("1").darTotalPendienteCentavos());
+            assertEquals(5000 - 300, club.buscarSocio("1").darFondosCentavos());
+            assertEquals(3700, club.darAgregados().darTotalPendienteCentavos());
+            assertEquals(5000 - 300, club.darAgregados().darFondosCentavos(Tipo.REGULAR));
+
+            // La misma factura no se puede pagar dos veces
+            assertThrows(FacturaNoExisteException.class, () -> club.pagarFacturaSocioPorId("1", bebida));
+            assertEquals(5000 - 300, club.buscarSocio("1").darFondosCentavos());
+        }
+    }
+
+    @Test
+    public void rechazaElPagoSinCambiarNada() {
+        Club club = new Club();
+        club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+        long primera = club.registrarConsumoCentavos("1", "Ana", "Almuerzo", 3000);
+        long segunda = club.registrarConsumoCentavos("1", "Ana", "Cena", 3000);
+        club.pagarFacturaSocioPorId("1", primera);
+
+        assertThrows(FondosInsuficientesException.class, () -> club.pagarFacturaSocioPorId("1", segunda));
+        assertThrows(FacturaNoExisteException.class, () -> club.pagarFacturaSocioPorId("1", segunda + 1));
+        assertThrows(SocioNoExisteException.class, () -> club.pagarFacturaSocioPorId("2", segunda));
+
+        assertEquals(1, club.darFacturasSocio("1").size());
+        assertEquals(segunda, club.darFacturasSocio("1").get(0).darId());
+        assertEquals(2000, club.buscarSocio("1").darFondosCentavos());
+        assertEquals(3000, club.darAgregados().darTotalPendienteCentavos());
+
+        // Con más fondos ya se puede pagar
+        club.aumentarFondosSocioCentavos("1", 1000);
+        club.pagarFacturaSocioPorId("1", segunda);
+        assertEquals(0, club.buscarSocio("1").darFondosCentavos());
+        assertEquals(0, club.darAgregados().darTotalPendienteCentavos());
+    }
+}
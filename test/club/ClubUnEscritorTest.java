@@ -0,0 +1,69 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import club.Socio.Tipo;
+import club.Excepciones.ColaLlenaException;
+
+/**
+ * Pruebas del club de un solo escritor.
+ */
+public class ClubUnEscritorTest {
+
+    @Test
+    public void respondeConsultasConLasCopiasPublicadas() {
+        ClubUnEscritor club = new ClubUnEscritor();
+        club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+        club.agregarAutorizadoSocio("1", "Pedro");
+        club.registrarConsumoCentavos("1", "Pedro", "Almuerzo", 500);
+
+        Collection<String> personas = club.darAutorizadosSocio("1");
+        assertEquals(List.of("Ana", "Pedro"), personas);
+        assertSame(club.darEstadoSocio("1").darPersonas(), personas);
+        assertThrows(UnsupportedOperationException.class, () -> personas.add("Luis"));
+
+        assertEquals(CasoEliminacion.FACTURAS_PENDIENTES, club.evaluarEliminacion("1").darCaso());
+        club.pagarFacturaSocio("1", 0);
+        assertEquals(CasoEliminacion.ELIMINABLE, club.evaluarEliminacion("1").darCaso());
+        assertEquals(CasoEliminacion.SOCIO_NO_EXISTE, club.evaluarEliminacion("2").darCaso());
+        assertEquals(1, club.evaluarEliminaciones().count());
+        club.detener();
+    }
+
+    @Test
+    public void rechazaConResultadosDespuesDeDetenerse() {
+        ClubUnEscritor club = new ClubUnEscritor();
+        club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+        club.detener();
+
+        assertEquals(List.of(CasoEliminacion.COLA_LLENA, CasoEliminacion.COLA_LLENA),
+                club.eliminarSocios(List.of("1", "2")));
+        assertThrows(ColaLlenaException.class, () -> club.afiliarSocio("2", "Luis", Tipo.VIP));
+        assertNotNull(club.buscarSocio("1"));
+        // Detenerlo otra vez no espera a un escritor que ya no existe
+        club.detener();
+    }
+
+    @Test
+    public void entregaLosErroresYSeDetiene() {
+        AlmacenSocios almacen = new AlmacenSocios() {
+            private int reservas;
+            public CeldaFondos reservar(long pFondos) {
+                if(++reservas == 2) {
+                    throw new AssertionError("Falla de prueba");
+                }
+                return new CeldaFondosMemoria(pFondos);
+            }
+            public void liberar(CeldaFondos pCelda) { }
+        };
+        ClubUnEscritor club = new ClubUnEscritor(almacen, FormatoFacturas.OBJETOS, 16);
+        club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+
+        assertThrows(AssertionError.class, () -> club.afiliarSocio("falla", "Luis", Tipo.REGULAR));
+        assertThrows(ColaLlenaException.class, () -> club.afiliarSocio("2", "Eva", Tipo.REGULAR));
+        assertNull(club.buscarSocio("2"));
+    }
+}
@@ -0,0 +1,66 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la conversión, el redondeo y el formato de los montos en centavos.
+ */
+public class DineroTest {
+
+    @Test
+    public void leeMontosConHastaDosDecimales() {
+        assertEquals(1200, Dinero.leer("12"));
+        assertEquals(1250, Dinero.leer("12.5"));
+        assertEquals(1250, Dinero.leer("12.50"));
+        assertEquals(1200, Dinero.leer("12."));
+        assertEquals(50, Dinero.leer(".5"));
+        assertEquals(100, Dinero.leer("+1"));
+        assertEquals(-325, Dinero.leer("-3.25"));
+        assertEquals(Long.MAX_VALUE, Dinero.leer("92233720368547758.07"));
+    }
+
+    @Test
+    public void redondeaAlCentavoMasCercano() {
+        assertEquals(1, Dinero.leer("0.005"));
+        assertEquals(0, Dinero.leer("0.004"));
+        assertEquals(200, Dinero.leer("1.995"));
+        assertEquals(1234, Dinero.leer("12.344999"));
+        assertEquals(1235, Dinero.leer("12.345001"));
+        assertEquals(-1, Dinero.leer("-0.005"));
+
+        assertEquals(30, Dinero.aCentavos(0.1 + 0.2));
+        assertEquals(1999, Dinero.aCentavos(19.99));
+        assertEquals(-150, Dinero.aCentavos(-1.5));
+    }
+
+    @Test
+    public void rechazaTextosQueNoSonMontos() {
+        for(String texto : new String[] {"", "-", "+", ".", "1.2.3", "12a", "1,5", " 1", "--1"}) {
+            assertThrows(NumberFormatException.class, () -> Dinero.leer(texto), texto);
+        }
+    }
+
+    @Test
+    public void rechazaMontosQueNoCabenEnUnLong() {
+        assertThrows(ArithmeticException.class, () -> Dinero.leer("92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> Dinero.leer("100000000000000000000"));
+        assertThrows(ArithmeticException.class, () -> Dinero.aCentavos(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Dinero.aCentavos(Double.POSITIVE_INFINITY));
+        assertThrows(ArithmeticException.class, () -> Dinero.aCentavos(1e18));
+        assertThrows(ArithmeticException.class, () -> Dinero.sumar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Dinero.restar(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    public void formateaConDosDecimales() {
+        assertEquals("0.00", Dinero.formatear(0));
+        assertEquals("0.05", Dinero.formatear(5));
+        assertEquals("12.05", Dinero.formatear(1205));
+        assertEquals("12.50", Dinero.formatear(1250));
+        assertEquals("-0.05", Dinero.formatear(-5));
+        assertEquals(12.5, Dinero.aUnidades(1250));
+        assertEquals(1250, Dinero.leer(Dinero.formatear(1250)));
+    }
+}
@@ -0,0 +1,56 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del depósito acotado de cadenas.
+ */
+public class InternadorTest {
+
+    @Test
+    public void cuentaAciertosYFallos() {
+        Internador internador = new Internador(16);
+        assertEquals(0, internador.darTasaAciertos());
+
+        String primera = new String("Bebidas");
+        assertSame(primera, internador.internar(primera));
+        assertSame(primera, internador.internar(new String("Bebidas")));
+        assertSame(primera, internador.internar(new String("Bebidas")));
+        assertEquals(2, internador.darAciertos());
+        assertEquals(1, internador.darFallos());
+
+        assertNull(internador.internar(null));
+        assertEquals(3, internador.darAciertos() + internador.darFallos());
+        assertEquals(2.0 / 3, internador.darTasaAciertos(), 1e-9);
+    }
+
+    @Test
+    public void lasCadenasQueCaenEnLaMismaPosicionSeDesplazan() {
+        // Con dos posiciones, entre tres cadenas distintas hay dos que comparten posición
+        Internador internador = new Internador(2);
+        String a = "Restaurante";
+        String b = null;
+        for(int i = 0; b == null; i++) {
+            String candidata = "Concepto " + i;
+            if(posicion(candidata, 2) == posicion(a, 2)) {
+                b = candidata;
+            }
+        }
+
+        internador.internar(a);
+        internador.internar(b);
+        String otraA = new String(a);
+        assertSame(otraA, internador.internar(otraA));
+        assertEquals(0, internador.darAciertos());
+        assertEquals(3, internador.darFallos());
+        assertSame(otraA, internador.internar(new String(a)));
+        assertEquals(1, internador.darAciertos());
+    }
+
+    private static int posicion(String pCadena, int pCapacidad) {
+        int hash = pCadena.hashCode();
+        return (hash ^ (hash >>> 16)) & (pCapacidad - 1);
+    }
+}
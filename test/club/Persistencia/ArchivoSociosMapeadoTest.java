@@ -0,0 +1,44 @@
+package club.Persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import club.Club;
+import club.FormatoFacturas;
+import club.Socio;
+import club.Socio.Tipo;
+
+/**
+ * Pruebas del club con los fondos de los socios en un archivo mapeado.
+ */
+public class ArchivoSociosMapeadoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void guardaLosFondosYReusaLasRanuras() throws IOException {
+        try(ArchivoSociosMapeado archivo = new ArchivoSociosMapeado(directorio.resolve("socios.map"))) {
+            Club club = new Club(archivo, FormatoFacturas.OBJETOS);
+            // La ranura solo guarda los fondos, así que los textos largos se aceptan
+            String nombreLargo = "ñ".repeat(1000);
+            club.afiliarSocio("1", nombreLargo, Tipo.REGULAR);
+            club.afiliarSocio("2", "Luis", Tipo.VIP);
+            club.aumentarFondosSocioCentavos("1", 2500);
+            assertEquals(nombreLargo, club.buscarSocio("1").darNombre());
+            assertEquals(Socio.darFondosIniciales(Tipo.REGULAR) + 2500, club.buscarSocio("1").darFondosCentavos());
+            assertEquals(2, archivo.darNumeroSocios());
+
+            // La ranura del socio eliminado la toma el siguiente, con sus propios fondos
+            club.eliminarSocio("1");
+            assertEquals(1, archivo.darNumeroSocios());
+            club.afiliarSocio("3", "Eva", Tipo.REGULAR);
+            assertEquals(2, archivo.darNumeroSocios());
+            assertEquals(Socio.darFondosIniciales(Tipo.REGULAR), club.buscarSocio("3").darFondosCentavos());
+            assertEquals(Socio.darFondosIniciales(Tipo.VIP), club.buscarSocio("2").darFondosCentavos());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package club.Persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import club.Club;
+import club.Socio.Tipo;
+import club.Excepciones.DatoInvalidoException;
+
+/**
+ * Pruebas de la recuperación del club desde la bitácora.
+ */
+public class BitacoraArchivoTest {
+
+    @TempDir
+    Path directorio;
+
+    private Path segmento() {
+        return directorio.resolve("bitacora-00000001.log");
+    }
+
+    /**
+     * Afilia dos socios y les registra un consumo y un aumento de fondos.
+     */
+    private void llenar(Club pClub) {
+        pClub.afiliarSocio("1", "Ana", Tipo.REGULAR);
+        pClub.afiliarSocio("2", "Luis", Tipo.VIP);
+        pClub.registrarConsumoCentavos("1", "Ana", "Almuerzo", 1500);
+        pClub.aumentarFondosSocioCentavos("2", 2500);
+    }
+
+    @Test
+    public void descartaLaColaIncompleta() throws IOException {
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            llenar(almacen.darClub());
+        }
+        long longitud = Files.size(segmento());
+        // Una caída a mitad de un registro deja basura al final del segmento
+        Files.write(segmento(), new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            assertEquals(4, almacen.darRegistrosReproducidos());
+            assertEquals(longitud, Files.size(segmento()));
+            assertEquals(1500, club.buscarSocio("1").darTotalPendienteCentavos());
+            assertEquals(12500, club.buscarSocio("2").darFondosCentavos());
+            club.aumentarFondosSocioCentavos("1", 100);
+        }
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            assertEquals(5, almacen.darRegistrosReproducidos());
+            assertEquals(5100, almacen.darClub().buscarSocio("1").darFondosCentavos());
+        }
+    }
+
+    @Test
+    public void descartaElUltimoRegistroDanado() throws IOException {
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            llenar(almacen.darClub());
+        }
+        // Cambiar un byte del crc del último registro, el aumento de fondos
+        try(RandomAccessFile archivo = new RandomAccessFile(segmento().toFile(), "rw")) {
+            archivo.seek(archivo.length() - 1);
+            int ultimo = archivo.read();
+            archivo.seek(archivo.length() - 1);
+            archivo.write(ultimo ^ 0xFF);
+        }
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            assertEquals(3, almacen.darRegistrosReproducidos());
+            assertEquals(1500, club.buscarSocio("1").darTotalPendienteCentavos());
+            assertEquals(10000, club.buscarSocio("2").darFondosCentavos());
+            assertEquals(1, club.darFacturasSocio("1").size());
+        }
+    }
+
+    @Test
+    public void rechazaTextosQueNoCabenEnLaBitacora() throws IOException {
+        String largo = "x".repeat(Club.MAXIMO_BYTES_TEXTO + 1);
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            llenar(club);
+            assertThrows(DatoInvalidoException.class,
+                    () -> club.registrarConsumoCentavos("1", "Ana", largo, 100));
+            assertThrows(DatoInvalidoException.class, () -> club.afiliarSocio("3", largo, Tipo.REGULAR));
+            // Cabe en UTF-8 pero no en el UTF-8 modificado de la instantánea
+            String emojis = "\uD83D\uDE00".repeat(13000);
+            assertThrows(DatoInvalidoException.class, () -> club.agregarAutorizadoSocio("2", emojis));
+            assertEquals(1500, club.buscarSocio("1").darTotalPendienteCentavos());
+            assertEquals(1, club.darFacturasSocio("1").size());
+            assertNull(club.buscarSocio("3"));
+            club.aumentarFondosSocioCentavos("1", 100);
+        }
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            assertEquals(5, almacen.darRegistrosReproducidos());
+            assertEquals(5100, almacen.darClub().buscarSocio("1").darFondosCentavos());
+        }
+    }
+}
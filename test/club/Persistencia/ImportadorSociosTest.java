@@ -0,0 +1,54 @@
+package club.Persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import club.Club;
+
+/**
+ * Pruebas de la carga masiva de socios.
+ */
+public class ImportadorSociosTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void rechazaFilasQueNoCabenSinDetenerElBloque() throws IOException {
+        Path csv = directorio.resolve("socios.csv");
+        Path rechazos = directorio.resolve("rechazos.csv");
+        Path datos = directorio.resolve("datos");
+        Files.write(csv, List.of(
+                "cedula,nombre,tipo",
+                "1,Ana,REGULAR,Pedro",
+                "2," + "n".repeat(Club.MAXIMO_BYTES_TEXTO + 1) + ",REGULAR",
+                "3,Luis,VIP",
+                "1,Ana otra vez,REGULAR"), StandardCharsets.UTF_8);
+
+        try(ArchivoSociosMapeado socios = new ArchivoSociosMapeado(directorio.resolve("socios.map"));
+            AlmacenClub almacen = new AlmacenClub(datos, socios)) {
+            ImportadorSocios importador = new ImportadorSocios(almacen.darClub());
+            importador.importar(csv, rechazos);
+            assertEquals(2, importador.darAceptados());
+            assertEquals(2, importador.darRechazados());
+        }
+
+        List<String> lineas = Files.readAllLines(rechazos, StandardCharsets.UTF_8);
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(1).startsWith("3,\"El nombre supera el máximo"));
+        assertTrue(lineas.get(2).startsWith("5,"));
+
+        // El bloque quedó en la bitácora aunque tuviera una fila que no cabía
+        try(AlmacenClub almacen = new AlmacenClub(datos)) {
+            assertEquals(2, almacen.darClub().darSocios().size());
+            assertEquals(1, almacen.darClub().buscarSocio("1").darAutorizados().size());
+            assertNotNull(almacen.darClub().buscarSocio("3"));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package club.Persistencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import club.Club;
+import club.Socio;
+import club.Socio.Tipo;
+
+/**
+ * Pruebas de la recuperación del club desde una instantánea y la bitácora posterior a ella.
+ */
+public class InstantaneaTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    public void recuperaInstantaneaMasBitacora() throws IOException {
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            club.afiliarSocio("1", "Ana", Tipo.REGULAR);
+            club.afiliarSocio("2", "Luis", Tipo.VIP);
+            club.afiliarSocio("3", "Eva", Tipo.REGULAR);
+            club.agregarAutorizadoSocio("1", "Pedro");
+            club.registrarConsumoCentavos("1", "Pedro", "Almuerzo", 1500);
+            club.registrarConsumoCentavos("2", "Luis", "Cena", 2000);
+
+            almacen.tomarInstantanea();
+            assertTrue(Files.exists(directorio.resolve("instantanea.bin")));
+            assertFalse(Files.exists(directorio.resolve("bitacora-00000001.log")));
+
+            // Registros posteriores a la instantánea, incluida la eliminación de un socio guardado en ella
+            club.pagarFacturaSocio("1", 0);
+            club.registrarConsumoCentavos("2", "Luis", "Bebida", 300);
+            club.eliminarSocio("3");
+            club.afiliarSocio("4", "Sara", Tipo.VIP);
+        }
+
+        try(AlmacenClub almacen = new AlmacenClub(directorio)) {
+            Club club = almacen.darClub();
+            assertEquals(4, almacen.darRegistrosReproducidos());
+            assertEquals(0, almacen.darRegistrosOmitidos());
+            assertEquals(3, club.darSocios().size());
+
+            Socio ana = club.buscarSocio("1");
+            assertEquals(3500, ana.darFondosCentavos());
+            assertEquals(0, ana.darTotalPendienteCentavos());
+            assertEquals(1, ana.darAutorizados().size());
+
+            Socio luis = club.buscarSocio("2");
+            assertEquals(2300, luis.darTotalPendienteCentavos());
+            assertEquals(2, luis.darFacturas().size());
+
+            assertNull(club.buscarSocio("3"));
+            assertNotNull(club.buscarSocio("4"));
+
+            // Los identificadores de factura siguen después de los recuperados
+            club.registrarConsumoCentavos("2", "Luis", "Postre", 100);
+            assertEquals(3, club.darFacturasSocio("2").stream().map(f -> f.darId()).distinct().count());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package club;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import club.Socio.Tipo;
+
+/**
+ * Pruebas de las cifras del reporte del club y de las que el club mantiene al día.
+ */
+public class ReporteClubTest {
+
+    /**
+     * Cantidad de socios regulares; son suficientes para que el reporte combine varios acumuladores.
+     */
+    private final static int REGULARES = 200;
+
+    @Test
+    public void elReporteYLosAgregadosSumanLoMismo() {
+        Club club = new Club();
+        for(int i = 0; i < REGULARES; i++) {
+            String cedula = "R" + i;
+            club.afiliarSocio(cedula, "Regular " + i, Tipo.REGULAR);
+            club.registrarConsumoCentavos(cedula, "Regular " + i, "Almuerzo", (i % 10 + 1) * 100);
+            if(i % 2 == 0) {
+                club.registrarConsumoCentavos(cedula, "Regular " + i, "Bebidas", 50);
+            }
+        }
+        club.registrarConsumoCentavos("R199", "Regular 199", "Cena", 4000);
+        club.pagarFacturaSocioPorId("R0", club.darFacturasSocio("R0").get(0).darId());
+
+        club.afiliarSocio("V0", "Vip 0", Tipo.VIP);
+        club.afiliarSocio("V1", "Vip 1", Tipo.VIP);
+        club.registrarConsumoCentavos("V0", "Vip 0", "Cena", 9000);
+        club.aumentarFondosSocioCentavos("V1", 1000);
+
+        // Un socio eliminado no cuenta en ninguna cifra
+        club.afiliarSocio("X", "Eliminado", Tipo.REGULAR);
+        club.aumentarFondosSocioCentavos("X", 500);
+        club.eliminarSocio("X");
+
+        // Almuerzos: 20 veces 100 + 200 + ... + 1000, menos el de R0 que se pagó
+        long pendienteRegulares = 20 * 5500 - 100 + (REGULARES / 2) * 50 + 4000;
+        long fondosRegulares = REGULARES * 5000L - 100;
+
+        ReporteClub reporte = club.generarReporte(3);
+        assertEquals(REGULARES, reporte.darNumeroSocios(Tipo.REGULAR));
+        assertEquals(2, reporte.darNumeroSocios(Tipo.VIP));
+        assertEquals(pendienteRegulares, reporte.darTotalPendienteCentavos(Tipo.REGULAR));
+        assertEquals(9000, reporte.darTotalPendienteCentavos(Tipo.VIP));
+        assertEquals(pendienteRegulares + 9000, reporte.darTotalPendienteCentavos());
+        assertEquals(fondosRegulares, reporte.darFondosCentavos(Tipo.REGULAR));
+        assertEquals(21000, reporte.darFondosCentavos(Tipo.VIP));
+        assertEquals((double) fondosRegulares / (Socio.MONTO_MAXIMO_REGULARES_CENTAVOS * REGULARES),
+                reporte.darUtilizacionFondos(Tipo.REGULAR), 1e-12);
+
+        HashMap<String, Long> porConcepto = reporte.darPendientePorConcepto();
+        assertEquals(Map.of("Almuerzo", 20 * 5500L - 100, "Bebidas", 5000L, "Cena", 13000L), porConcepto);
+
+        ArrayList<ReporteClub.Consumidor> mayores = reporte.darMayoresConsumidores();
+        assertEquals(3, mayores.size());
+        assertEquals("V0", mayores.get(0).darCedula());
+        assertEquals("R199", mayores.get(1).darCedula());
+        assertEquals(5000, mayores.get(1).darTotalCentavos());
+        assertEquals(1000, mayores.get(2).darTotalCentavos());
+
+        AgregadosClub agregados = club.darAgregados();
+        assertEquals(reporte.darTotalPendienteCentavos(), agregados.darTotalPendienteCentavos());
+        for(Tipo tipo : Tipo.values()) {
+            assertEquals(reporte.darFondosCentavos(tipo), agregados.darFondosCentavos(tipo), tipo.name());
+        }
+        // Las ventas incluyen el consumo que ya se pagó
+        assertEquals(20 * 5500L, agregados.darVentasCentavos("Almuerzo"));
+        assertEquals(13000, agregados.darVentasCentavos("Cena"));
+        assertEquals(0, agregados.darVentasCentavos("Postres"));
+        assertEquals(3, agregados.darVentasPorConcepto().size());
+    }
+
+    @Test
+    public void unClubVacioNoTieneCifras() {
+        ReporteClub reporte = new Club().generarReporte(5);
+        for(Tipo tipo : Tipo.values()) {
+            assertEquals(0, reporte.darNumeroSocios(tipo));
+            assertEquals(0, reporte.darUtilizacionFondos(tipo));
+        }
+        assertEquals(0, reporte.darTotalPendienteCentavos());
+        assertTrue(reporte.darMayoresConsumidores().isEmpty());
+        assertTrue(reporte.darPendientePorConcepto().isEmpty());
+    }
+}